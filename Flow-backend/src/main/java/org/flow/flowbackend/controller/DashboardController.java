@@ -1,6 +1,7 @@
 package org.flow.flowbackend.controller;
 
 import org.flow.flowbackend.model.User;
+import org.flow.flowbackend.service.DashboardCache;
 import org.flow.flowbackend.service.DashboardService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -16,10 +17,27 @@ import java.util.Map;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final DashboardCache dashboardCache;
 
     @Autowired
-    public DashboardController(DashboardService dashboardService) {
+    public DashboardController(DashboardService dashboardService, DashboardCache dashboardCache) {
         this.dashboardService = dashboardService;
+        this.dashboardCache = dashboardCache;
+    }
+
+    /**
+     * Get stats, recent activities and upcoming deadlines for the current user in one call.
+     */
+    @GetMapping("/summary")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, Object>> getDashboardSummary(
+            @RequestParam(defaultValue = "5") int activityLimit,
+            Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        Map<String, Object> summary = dashboardCache.get(user, DashboardCache.SECTION_SUMMARY, String.valueOf(activityLimit),
+                () -> dashboardService.getCacheScope(user),
+                () -> dashboardService.getDashboardSummary(user, activityLimit));
+        return ResponseEntity.ok(summary);
     }
 
     /**
@@ -29,18 +47,26 @@ public class DashboardController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<Map<String, Object>> getDashboardStats(Authentication authentication) {
         User user = (User) authentication.getPrincipal();
-        Map<String, Object> stats = dashboardService.getDashboardStats(user);
+        Map<String, Object> stats = dashboardCache.get(user, DashboardCache.SECTION_STATS, "",
+                () -> dashboardService.getCacheScope(user),
+                () -> dashboardService.getDashboardStats(user));
         return ResponseEntity.ok(stats);
     }
 
     /**
-     * Get recent activities for the dashboard.
+     * Get recent activities for the dashboard, newest first.
+     * Pass the id of the last activity as {@code before} to fetch older activity.
      */
     @GetMapping("/activities")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<Map<String, Object>>> getRecentActivities(Authentication authentication) {
+    public ResponseEntity<List<Map<String, Object>>> getRecentActivities(
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "5") int limit,
+            Authentication authentication) {
         User user = (User) authentication.getPrincipal();
-        List<Map<String, Object>> activities = dashboardService.getRecentActivities(user);
+        List<Map<String, Object>> activities = dashboardCache.get(user, DashboardCache.SECTION_ACTIVITIES, before + ":" + limit,
+                () -> dashboardService.getCacheScope(user),
+                () -> dashboardService.getRecentActivities(user, before, limit));
         return ResponseEntity.ok(activities);
     }
 
@@ -51,7 +77,20 @@ public class DashboardController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<List<Map<String, Object>>> getUpcomingDeadlines(Authentication authentication) {
         User user = (User) authentication.getPrincipal();
-        List<Map<String, Object>> deadlines = dashboardService.getUpcomingDeadlines(user);
+        List<Map<String, Object>> deadlines = dashboardCache.get(user, DashboardCache.SECTION_DEADLINES, "",
+                () -> dashboardService.getCacheScope(user),
+                () -> dashboardService.getUpcomingDeadlines(user));
         return ResponseEntity.ok(deadlines);
     }
+
+    /**
+     * Get dashboard cache hit/miss and request coalescing metrics (for sizing).
+     */
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasAuthority('SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        Map<String, Object> metrics = dashboardCache.getMetrics();
+        metrics.put("coalescedRequests", dashboardService.getCoalescedRequestCount());
+        return ResponseEntity.ok(metrics);
+    }
 }
@@ -0,0 +1,66 @@
+package org.flow.flowbackend.controller;
+
+/**
+ * Entity tags built from @Version columns. A task's tag also carries its comment count, since
+ * adding a comment does not touch the task row; If-Match only compares the version part.
+ */
+final class ETags {
+
+    // Returned by expectedVersion for a tag no entity can carry, so the precondition always fails
+    static final long NO_VERSION = -1;
+
+    private ETags() {
+    }
+
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    static String of(long version, long commentCount) {
+        return "\"" + version + "-" + commentCount + "\"";
+    }
+
+    /**
+     * The version an If-Match header asks for, or null when the header is absent or "*".
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = unquote(ifMatch.split(",")[0]);
+        int dash = tag.indexOf('-');
+        try {
+            return Long.parseLong(dash >= 0 ? tag.substring(0, dash) : tag);
+        } catch (NumberFormatException e) {
+            return NO_VERSION;
+        }
+    }
+
+    /**
+     * Whether an If-None-Match header lists the current tag (weak comparison).
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String current = unquote(etag);
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || unquote(candidate).equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String unquote(String tag) {
+        String value = tag.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+}
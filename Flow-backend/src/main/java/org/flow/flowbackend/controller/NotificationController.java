@@ -4,8 +4,11 @@ import org.flow.flowbackend.model.NotificationEvent;
 import org.flow.flowbackend.model.Organization;
 import org.flow.flowbackend.model.User;
 import org.flow.flowbackend.model.WebhookConfig;
+import org.flow.flowbackend.model.WebhookDelivery;
+import org.flow.flowbackend.payload.response.MessageResponse;
 import org.flow.flowbackend.service.NotificationService;
 import org.flow.flowbackend.service.OrganizationService;
+import org.flow.flowbackend.service.WebhookDeliveryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -21,12 +24,15 @@ public class NotificationController {
 
     private final NotificationService notificationService;
     private final OrganizationService organizationService;
+    private final WebhookDeliveryService webhookDeliveryService;
 
     @Autowired
     public NotificationController(NotificationService notificationService,
-                                   OrganizationService organizationService) {
+                                   OrganizationService organizationService,
+                                   WebhookDeliveryService webhookDeliveryService) {
         this.notificationService = notificationService;
         this.organizationService = organizationService;
+        this.webhookDeliveryService = webhookDeliveryService;
     }
 
     /**
@@ -114,15 +120,55 @@ public class NotificationController {
                         .build());
 
         config.setWebhookUrl(request.getWebhookUrl());
-        config.setSecretKey(request.getSecretKey());
+        // A blank secret keeps the current one; a new webhook without one gets a generated secret
+        if (request.getSecretKey() != null && !request.getSecretKey().isBlank()) {
+            config.setSecretKey(request.getSecretKey());
+        }
         config.setActive(request.isActive());
         config.setEventTypes(request.getEventTypes());
         config.setTargetRoles(request.getTargetRoles());
+        config.setBatchWindowMs(request.getBatchWindowMs());
+        config.setBatchMaxSize(request.getBatchMaxSize());
+        config.setMaxRequestsPerMinute(request.getMaxRequestsPerMinute());
 
         WebhookConfig saved = notificationService.saveWebhookConfig(config);
         return ResponseEntity.ok(saved);
     }
 
+    /**
+     * Latest webhook deliveries of an organization; status=dead lists the dead-lettered ones.
+     */
+    @GetMapping("/webhook-deliveries/{organizationId}")
+    @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'ORG_ADMIN')")
+    public ResponseEntity<List<WebhookDelivery>> getWebhookDeliveries(
+            @PathVariable Long organizationId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(webhookDeliveryService.getDeliveries(organizationId, status, limit));
+    }
+
+    /**
+     * Re-queue a dead-lettered webhook delivery.
+     */
+    @PostMapping("/webhook-deliveries/{id}/retry")
+    @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'ORG_ADMIN')")
+    public ResponseEntity<?> retryWebhookDelivery(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(webhookDeliveryService.retryDelivery(id));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Per-URL webhook circuit breaker state, latency and error rate on this instance.
+     */
+    @GetMapping("/webhook-endpoints/stats")
+    @PreAuthorize("hasAuthority('SUPER_ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> getWebhookEndpointStats() {
+        return ResponseEntity.ok(webhookDeliveryService.getEndpointMetrics());
+    }
+
     // ===================== Request DTOs =====================
 
     @lombok.Data
@@ -133,5 +179,8 @@ public class NotificationController {
         private boolean active;
         private List<String> eventTypes;
         private List<String> targetRoles;
+        private Integer batchWindowMs;
+        private Integer batchMaxSize;
+        private Integer maxRequestsPerMinute;
     }
 }
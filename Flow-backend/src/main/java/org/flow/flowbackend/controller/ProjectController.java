@@ -4,24 +4,37 @@ import org.flow.flowbackend.model.Project;
 import org.flow.flowbackend.model.User;
 import org.flow.flowbackend.payload.response.MessageResponse;
 import org.flow.flowbackend.service.ProjectService;
+import org.flow.flowbackend.service.ProjectTaskHistoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/projects")
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class ProjectController {
 
+    private static final int MAX_HISTORY_DAYS = 731;
+
     private final ProjectService projectService;
+    private final ProjectTaskHistoryService projectTaskHistoryService;
 
     @Autowired
-    public ProjectController(ProjectService projectService) {
+    public ProjectController(ProjectService projectService, ProjectTaskHistoryService projectTaskHistoryService) {
         this.projectService = projectService;
+        this.projectTaskHistoryService = projectTaskHistoryService;
     }
 
     @PostMapping
@@ -51,21 +64,58 @@ public class ProjectController {
         return ResponseEntity.ok(projectService.getProjectsByOrganization(organizationId));
     }
 
+    /**
+     * Answers If-None-Match from the version alone: an unchanged project is neither loaded nor
+     * serialized.
+     */
     @GetMapping("/{id}")
     @PreAuthorize("hasAuthority('SUPER_ADMIN') or hasAuthority('ORG_ADMIN') or hasAuthority('PROJECT_MANAGER') or hasAuthority('TEAM_MEMBER') or hasAuthority('CLIENT')")
-    public ResponseEntity<Project> getProjectById(@PathVariable Long id) {
+    public ResponseEntity<Project> getProjectById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String etag = projectService.getProjectVersion(id).map(ETags::of).orElse(null);
+            if (etag != null && ETags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
         return projectService.getProjectById(id)
-                .map(ResponseEntity::ok)
+                .map(project -> ResponseEntity.ok()
+                        .eTag(ETags.of(project.getVersion()))
+                        .cacheControl(CacheControl.noCache().cachePrivate())
+                        .body(project))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Get per-day task history (created, completed, open, overdue, hours) for burndown and velocity charts.
+     * Defaults to the last 30 days.
+     */
+    @GetMapping("/{id}/history")
+    @PreAuthorize("hasAuthority('SUPER_ADMIN') or hasAuthority('ORG_ADMIN') or hasAuthority('PROJECT_MANAGER') or hasAuthority('TEAM_MEMBER') or hasAuthority('CLIENT')")
+    public ResponseEntity<?> getProjectHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (start.isAfter(end) || ChronoUnit.DAYS.between(start, end) >= MAX_HISTORY_DAYS) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Invalid date range (at most " + MAX_HISTORY_DAYS + " days)"));
+        }
+        List<Map<String, Object>> history = projectTaskHistoryService.getHistory(id, start, end);
+        return ResponseEntity.ok(history);
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAuthority('SUPER_ADMIN') or hasAuthority('ORG_ADMIN') or hasAuthority('PROJECT_MANAGER')")
     public ResponseEntity<?> updateProject(
             @PathVariable Long id,
-            @RequestBody Project projectDetails) {
+            @RequestBody Project projectDetails,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            return ResponseEntity.ok(projectService.updateProject(id, projectDetails));
+            return withETag(projectService.updateProject(id, projectDetails, ETags.expectedVersion(ifMatch)));
+        } catch (OptimisticLockingFailureException e) {
+            return preconditionFailed();
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
         }
@@ -75,18 +125,30 @@ public class ProjectController {
     @PreAuthorize("hasAuthority('SUPER_ADMIN') or hasAuthority('ORG_ADMIN')")
     public ResponseEntity<?> updateProjectStatus(
             @PathVariable Long id,
-            @RequestBody java.util.Map<String, Boolean> statusUpdate) {
+            @RequestBody java.util.Map<String, Boolean> statusUpdate,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
             if (!statusUpdate.containsKey("isActive")) {
                 return ResponseEntity.badRequest().body(new MessageResponse("isActive field is required"));
             }
             boolean isActive = statusUpdate.get("isActive");
-            return ResponseEntity.ok(projectService.updateProjectStatus(id, isActive));
+            return withETag(projectService.updateProjectStatus(id, isActive, ETags.expectedVersion(ifMatch)));
+        } catch (OptimisticLockingFailureException e) {
+            return preconditionFailed();
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
         }
     }
 
+    private ResponseEntity<Project> withETag(Project project) {
+        return ResponseEntity.ok().eTag(ETags.of(project.getVersion())).body(project);
+    }
+
+    private ResponseEntity<MessageResponse> preconditionFailed() {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(new MessageResponse("Project was modified by someone else; reload it and try again"));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAuthority('SUPER_ADMIN') or hasAuthority('ORG_ADMIN')")
     public ResponseEntity<MessageResponse> deleteProject(@PathVariable Long id) {
@@ -1,23 +1,43 @@
 package org.flow.flowbackend.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.flow.flowbackend.model.Task;
 import org.flow.flowbackend.model.User;
+import org.flow.flowbackend.payload.request.BulkTaskRequest;
 import org.flow.flowbackend.payload.request.CreateTaskRequest;
 import org.flow.flowbackend.payload.request.UpdateTaskRequest;
 import org.flow.flowbackend.payload.response.MessageResponse;
 import org.flow.flowbackend.payload.response.TaskCommentDTO;
 import org.flow.flowbackend.payload.response.TaskDTO;
 import org.flow.flowbackend.service.TaskCommentService;
+import org.flow.flowbackend.service.TaskHierarchyService;
+import org.flow.flowbackend.service.TaskImportService;
 import org.flow.flowbackend.service.TaskService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api/tasks")
@@ -26,11 +46,19 @@ public class TaskController {
 
     private final TaskService taskService;
     private final TaskCommentService taskCommentService;
+    private final TaskImportService taskImportService;
+    private final TaskHierarchyService taskHierarchyService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public TaskController(TaskService taskService, TaskCommentService taskCommentService) {
+    public TaskController(TaskService taskService, TaskCommentService taskCommentService,
+                          TaskImportService taskImportService, TaskHierarchyService taskHierarchyService,
+                          ObjectMapper objectMapper) {
         this.taskService = taskService;
         this.taskCommentService = taskCommentService;
+        this.taskImportService = taskImportService;
+        this.taskHierarchyService = taskHierarchyService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -61,15 +89,90 @@ public class TaskController {
 
     @GetMapping("/status/{status}")
     @PreAuthorize("hasAuthority('SUPER_ADMIN') or hasAuthority('ORG_ADMIN') or hasAuthority('PROJECT_MANAGER') or hasAuthority('TEAM_MEMBER')")
-    public ResponseEntity<List<TaskDTO>> getTasksByStatus(@PathVariable String status) {
-        return ResponseEntity.ok(taskService.getTasksByStatus(status));
+    public ResponseEntity<List<TaskDTO>> getTasksByStatus(@PathVariable String status, Authentication authentication) {
+        User currentUser = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(taskService.getTasksByStatus(status, currentUser));
     }
 
+    // Cursor-paginated listings: pass the returned nextCursor as cursor to fetch the next page
+
+    @GetMapping("/page")
+    @PreAuthorize("hasAuthority('SUPER_ADMIN') or hasAuthority('ORG_ADMIN') or hasAuthority('PROJECT_MANAGER') or hasAuthority('TEAM_MEMBER')")
+    public ResponseEntity<?> getTaskPage(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) Long assigneeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime dueTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Authentication authentication) {
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+            return ResponseEntity.ok(taskService.getTaskPageByUser(currentUser, status, priority, assigneeId,
+                    dueFrom, dueTo, cursor, limit));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/project/{projectId}/page")
+    @PreAuthorize("hasAuthority('SUPER_ADMIN') or hasAuthority('ORG_ADMIN') or hasAuthority('PROJECT_MANAGER') or hasAuthority('TEAM_MEMBER') or hasAuthority('CLIENT')")
+    public ResponseEntity<?> getTaskPageByProject(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) Long assigneeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime dueTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(taskService.getTaskPageByProject(projectId, status, priority, assigneeId,
+                    dueFrom, dueTo, cursor, limit));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Delta sync: tasks of a project changed or deleted since the cursor. Omit since for a full sync.
+     */
+    @GetMapping("/changes")
+    @PreAuthorize("hasAuthority('SUPER_ADMIN') or hasAuthority('ORG_ADMIN') or hasAuthority('PROJECT_MANAGER') or hasAuthority('TEAM_MEMBER') or hasAuthority('CLIENT')")
+    public ResponseEntity<?> getTaskChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam Long projectId,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(taskService.getTaskChanges(projectId, since, limit));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Answers If-None-Match from the version alone: an unchanged task is neither loaded nor
+     * serialized.
+     */
     @GetMapping("/{id}")
     @PreAuthorize("hasAuthority('SUPER_ADMIN') or hasAuthority('ORG_ADMIN') or hasAuthority('PROJECT_MANAGER') or hasAuthority('TEAM_MEMBER') or hasAuthority('CLIENT')")
-    public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long id) {
+    public ResponseEntity<TaskDTO> getTaskById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String etag = taskService.getTaskVersion(id)
+                    .map(version -> ETags.of(version.getVersion(), version.getCommentCount()))
+                    .orElse(null);
+            if (etag != null && ETags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
         return taskService.getTaskDTOById(id)
-                .map(ResponseEntity::ok)
+                .map(task -> ResponseEntity.ok()
+                        .eTag(ETags.of(task.getVersion(), task.getCommentCount()))
+                        .cacheControl(CacheControl.noCache().cachePrivate())
+                        .body(task))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -77,9 +180,12 @@ public class TaskController {
     @PreAuthorize("hasAuthority('SUPER_ADMIN') or hasAuthority('ORG_ADMIN') or hasAuthority('PROJECT_MANAGER') or hasAuthority('TEAM_MEMBER')")
     public ResponseEntity<?> updateTask(
             @PathVariable Long id,
-            @RequestBody UpdateTaskRequest request) {
+            @RequestBody UpdateTaskRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            return ResponseEntity.ok(taskService.updateTask(id, request));
+            return withETag(taskService.updateTask(id, request, ETags.expectedVersion(ifMatch)));
+        } catch (OptimisticLockingFailureException e) {
+            return preconditionFailed();
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
         }
@@ -89,13 +195,91 @@ public class TaskController {
     @PreAuthorize("hasAuthority('SUPER_ADMIN') or hasAuthority('ORG_ADMIN') or hasAuthority('PROJECT_MANAGER') or hasAuthority('TEAM_MEMBER')")
     public ResponseEntity<?> updateTaskStatus(
             @PathVariable Long id,
-            @RequestBody Map<String, String> statusUpdate) {
+            @RequestBody Map<String, String> statusUpdate,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
             String status = statusUpdate.get("status");
             if (status == null) {
                 throw new IllegalArgumentException("Status is required");
             }
-            return ResponseEntity.ok(taskService.updateTaskStatus(id, status));
+            return withETag(taskService.updateTaskStatus(id, status, ETags.expectedVersion(ifMatch)));
+        } catch (OptimisticLockingFailureException e) {
+            return preconditionFailed();
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Board drag-and-drop: body {previousTaskId, nextTaskId, status}, all optional.
+     */
+    @PatchMapping("/{id}/move")
+    @PreAuthorize("hasAuthority('SUPER_ADMIN') or hasAuthority('ORG_ADMIN') or hasAuthority('PROJECT_MANAGER') or hasAuthority('TEAM_MEMBER')")
+    public ResponseEntity<?> moveTask(
+            @PathVariable Long id,
+            @RequestBody Map<String, Object> move,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            return withETag(taskService.moveTask(id,
+                    idOf(move.get("previousTaskId")),
+                    idOf(move.get("nextTaskId")),
+                    move.get("status") != null ? move.get("status").toString() : null,
+                    ETags.expectedVersion(ifMatch)));
+        } catch (OptimisticLockingFailureException e) {
+            return preconditionFailed();
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    private Long idOf(Object value) {
+        return value != null ? Long.valueOf(value.toString()) : null;
+    }
+
+    private ResponseEntity<TaskDTO> withETag(TaskDTO task) {
+        return ResponseEntity.ok().eTag(ETags.of(task.getVersion(), task.getCommentCount())).body(task);
+    }
+
+    private ResponseEntity<MessageResponse> preconditionFailed() {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(new MessageResponse("Task was modified by someone else; reload it and try again"));
+    }
+
+    // Subtask hierarchy
+
+    @GetMapping("/{id}/tree")
+    @PreAuthorize("hasAuthority('SUPER_ADMIN') or hasAuthority('ORG_ADMIN') or hasAuthority('PROJECT_MANAGER') or hasAuthority('TEAM_MEMBER') or hasAuthority('CLIENT')")
+    public ResponseEntity<?> getTaskTree(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(taskHierarchyService.getTree(id));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}/progress")
+    @PreAuthorize("hasAuthority('SUPER_ADMIN') or hasAuthority('ORG_ADMIN') or hasAuthority('PROJECT_MANAGER') or hasAuthority('TEAM_MEMBER') or hasAuthority('CLIENT')")
+    public ResponseEntity<?> getTaskProgress(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(taskHierarchyService.getProgress(id));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Body {parentTaskId}; null makes the task a top-level task.
+     */
+    @PatchMapping("/{id}/parent")
+    @PreAuthorize("hasAuthority('SUPER_ADMIN') or hasAuthority('ORG_ADMIN') or hasAuthority('PROJECT_MANAGER') or hasAuthority('TEAM_MEMBER')")
+    public ResponseEntity<?> setParentTask(
+            @PathVariable Long id,
+            @RequestBody Map<String, Object> parent,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            return withETag(taskService.setParentTask(id, idOf(parent.get("parentTaskId")), ETags.expectedVersion(ifMatch)));
+        } catch (OptimisticLockingFailureException e) {
+            return preconditionFailed();
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
         }
@@ -105,10 +289,13 @@ public class TaskController {
     @PreAuthorize("hasAuthority('SUPER_ADMIN') or hasAuthority('ORG_ADMIN') or hasAuthority('PROJECT_MANAGER')")
     public ResponseEntity<?> assignTask(
             @PathVariable Long id,
-            @RequestBody Map<String, Long> assignment) {
+            @RequestBody Map<String, Long> assignment,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
             Long userId = assignment.get("userId");
-            return ResponseEntity.ok(taskService.assignTask(id, userId));
+            return withETag(taskService.assignTask(id, userId, ETags.expectedVersion(ifMatch)));
+        } catch (OptimisticLockingFailureException e) {
+            return preconditionFailed();
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
         }
@@ -116,11 +303,109 @@ public class TaskController {
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAuthority('SUPER_ADMIN') or hasAuthority('ORG_ADMIN') or hasAuthority('PROJECT_MANAGER')")
-    public ResponseEntity<MessageResponse> deleteTask(@PathVariable Long id) {
-        taskService.deleteTask(id);
+    public ResponseEntity<MessageResponse> deleteTask(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            taskService.deleteTask(id, ETags.expectedVersion(ifMatch));
+        } catch (OptimisticLockingFailureException e) {
+            return preconditionFailed();
+        }
         return ResponseEntity.ok(new MessageResponse("Task deleted successfully!"));
     }
 
+    // Bulk endpoints: each request is applied in one transaction
+
+    @PatchMapping("/bulk/status")
+    @PreAuthorize("hasAuthority('SUPER_ADMIN') or hasAuthority('ORG_ADMIN') or hasAuthority('PROJECT_MANAGER') or hasAuthority('TEAM_MEMBER')")
+    public ResponseEntity<?> bulkUpdateStatus(@RequestBody BulkTaskRequest request, Authentication authentication) {
+        try {
+            if (request.getStatus() == null) {
+                throw new IllegalArgumentException("Status is required");
+            }
+            User currentUser = (User) authentication.getPrincipal();
+            return ResponseEntity.ok(Map.of("updated",
+                    taskService.bulkUpdateStatus(request.getTaskIds(), request.getStatus(), currentUser)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    @PatchMapping("/bulk/assign")
+    @PreAuthorize("hasAuthority('SUPER_ADMIN') or hasAuthority('ORG_ADMIN') or hasAuthority('PROJECT_MANAGER')")
+    public ResponseEntity<?> bulkAssign(@RequestBody BulkTaskRequest request, Authentication authentication) {
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+            return ResponseEntity.ok(Map.of("updated",
+                    taskService.bulkAssign(request.getTaskIds(), request.getUserId(), currentUser)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    @PatchMapping("/bulk/reorder")
+    @PreAuthorize("hasAuthority('SUPER_ADMIN') or hasAuthority('ORG_ADMIN') or hasAuthority('PROJECT_MANAGER') or hasAuthority('TEAM_MEMBER')")
+    public ResponseEntity<?> bulkReorder(@RequestBody BulkTaskRequest request) {
+        try {
+            return ResponseEntity.ok(Map.of("updated", taskService.bulkReorder(request.getTaskIds())));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/bulk/delete")
+    @PreAuthorize("hasAuthority('SUPER_ADMIN') or hasAuthority('ORG_ADMIN') or hasAuthority('PROJECT_MANAGER')")
+    public ResponseEntity<?> bulkDelete(@RequestBody BulkTaskRequest request, Authentication authentication) {
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+            return ResponseEntity.ok(Map.of("deleted", taskService.bulkDelete(request.getTaskIds(), currentUser)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Streams a CSV (with header row) or NDJSON request body into the project. The response is
+     * NDJSON: error and progress events while the import runs, then a summary line.
+     */
+    @PostMapping(value = "/import/{projectId}", consumes = {"text/csv", "application/x-ndjson", "application/jsonl", "text/plain"})
+    @PreAuthorize("hasAuthority('SUPER_ADMIN') or hasAuthority('ORG_ADMIN') or hasAuthority('PROJECT_MANAGER')")
+    public void importTasks(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) String format,
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Authentication authentication) throws IOException {
+        String importFormat;
+        try {
+            importFormat = TaskImportService.formatOf(format, request.getContentType());
+            taskImportService.checkProject(projectId);
+        } catch (Exception e) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), new MessageResponse(e.getMessage()));
+            return;
+        }
+
+        User currentUser = (User) authentication.getPrincipal();
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        PrintWriter out = response.getWriter();
+        Consumer<Map<String, Object>> writeEvent = event -> {
+            try {
+                out.println(objectMapper.writeValueAsString(event));
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+        try (Reader body = new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8)) {
+            writeEvent.accept(taskImportService.importTasks(projectId, importFormat, body, currentUser, writeEvent));
+        } catch (Exception e) {
+            writeEvent.accept(Map.of("type", "failed", "message", String.valueOf(e.getMessage())));
+        }
+    }
+
     // Comment endpoints
     
     @PostMapping("/{id}/comments")
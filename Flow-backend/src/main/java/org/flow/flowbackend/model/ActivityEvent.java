@@ -0,0 +1,51 @@
+package org.flow.flowbackend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.OffsetDateTime;
+
+/**
+ * Append-only dashboard activity record. Rows are never updated; the feed pages through them
+ * newest first on (organization_id, created_at, id).
+ */
+@Entity
+@Table(name = "activity_events", indexes = {
+        @Index(name = "idx_activity_events_org_created", columnList = "organization_id, created_at, id"),
+        @Index(name = "idx_activity_events_type_created", columnList = "type, created_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ActivityEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "organization_id", nullable = false)
+    private Long organizationId;
+
+    @Column(name = "project_id")
+    private Long projectId;
+
+    @Column(name = "project_name")
+    private String projectName;
+
+    @Column(nullable = false, length = 20)
+    private String type; // task, project, organization
+
+    @Column(nullable = false, length = 20)
+    private String action; // created, updated, completed, deleted
+
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    @Column(nullable = false, length = 500)
+    private String title;
+
+    @Column(name = "actor_id")
+    private Long actorId;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+}
@@ -10,7 +10,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "organizations")
+@Table(name = "organizations", indexes = {
+        @Index(name = "idx_organizations_name", columnList = "name")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
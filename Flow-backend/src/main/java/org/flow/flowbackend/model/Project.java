@@ -61,6 +61,10 @@ public class Project {
     @Column(columnDefinition = "json")
     private String settings = "{}";
 
+    // Optimistic lock; also the project's ETag
+    @Version
+    private long version;
+
     @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnore
     private List<Task> tasks = new ArrayList<>();
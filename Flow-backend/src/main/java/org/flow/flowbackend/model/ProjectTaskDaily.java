@@ -0,0 +1,53 @@
+package org.flow.flowbackend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * One project's task history for one day. createdTasks/completedTasks are counted as tasks are written;
+ * openTasks/overdueTasks/hours are the end-of-day snapshot taken by ProjectTaskHistoryRollup.
+ */
+@Entity
+@Table(name = "project_task_daily", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_project_task_daily_project_day", columnNames = {"project_id", "stat_date"})
+}, indexes = {
+        @Index(name = "idx_project_task_daily_date", columnList = "stat_date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProjectTaskDaily {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private long createdTasks;
+
+    @Column(nullable = false)
+    private long completedTasks;
+
+    @Column(nullable = false)
+    private long openTasks;
+
+    @Column(nullable = false)
+    private long overdueTasks;
+
+    @Column(nullable = false)
+    private double estimatedHours;
+
+    @Column(nullable = false)
+    private double actualHours;
+
+    // Null until the day's snapshot has been taken
+    private OffsetDateTime snapshotAt;
+}
@@ -0,0 +1,52 @@
+package org.flow.flowbackend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.OffsetDateTime;
+
+/**
+ * Per-project task counters, maintained incrementally by TaskService writes and
+ * periodically rebuilt from the tasks table by ProjectTaskStatsReconciler.
+ */
+@Entity
+@Table(name = "project_task_stats", indexes = {
+        @Index(name = "idx_project_task_stats_org", columnList = "organization_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProjectTaskStats {
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+
+    @Column(name = "organization_id", nullable = false)
+    private Long organizationId;
+
+    @Column(nullable = false)
+    private long total;
+
+    @Column(nullable = false)
+    private long todo;
+
+    @Column(nullable = false)
+    private long inProgress;
+
+    @Column(nullable = false)
+    private long done;
+
+    // Open tasks past their due date; time-dependent, so corrected by reconciliation
+    @Column(nullable = false)
+    private long overdue;
+
+    @Column(nullable = false)
+    private double estimatedHours;
+
+    @Column(nullable = false)
+    private double actualHours;
+
+    private OffsetDateTime updatedAt;
+
+    private OffsetDateTime reconciledAt;
+}
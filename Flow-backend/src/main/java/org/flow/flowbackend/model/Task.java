@@ -6,15 +6,26 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_project_status_due", columnList = "project_id, status, due_date, priority"),
+        @Index(name = "idx_tasks_due_date", columnList = "due_date, project_id, status"),
+        @Index(name = "idx_tasks_assignee_due", columnList = "assigned_to, due_date"),
+        @Index(name = "idx_tasks_project_rank", columnList = "project_id, board_rank, id"),
+        @Index(name = "idx_tasks_project_status_rank", columnList = "project_id, status, board_rank, id"),
+        @Index(name = "idx_tasks_parent", columnList = "parent_task_id, board_rank"),
+        @Index(name = "idx_tasks_change_seq", columnList = "change_seq, id"),
+        @Index(name = "idx_tasks_project_change_seq", columnList = "project_id, change_seq, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Task {
+    // Pooled sequence (a one-row table on MySQL) so task inserts can be JDBC-batched; see db/V4
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -26,11 +37,13 @@ public class Task {
 
     private String description;
 
+    @Convert(converter = TaskStatusConverter.class)
     @Column(nullable = false)
-    private String status = "todo";
+    private TaskStatus status = TaskStatus.TODO;
 
+    @Convert(converter = TaskPriorityConverter.class)
     @Column(nullable = false)
-    private String priority = "medium";
+    private TaskPriority priority = TaskPriority.MEDIUM;
 
     private OffsetDateTime dueDate;
     private Double estimatedHours;
@@ -55,4 +68,16 @@ public class Task {
 
     @Column(nullable = false)
     private Integer orderIndex = 0;
+
+    // Board position: fractional base-36 rank, compared as a string (see TaskRankService)
+    @Column(name = "board_rank", length = 64)
+    private String rank;
+
+    // Optimistic lock; also the task's ETag (with its comment count)
+    @Version
+    private long version;
+
+    // Change sequence of the last committed write, stamped by TaskChangeService for delta sync
+    @Column(name = "change_seq")
+    private Long changeSeq;
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package org.flow.flowbackend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Single-row counter handing out the task change sequence (see TaskChangeService). purgedThrough
+ * is the highest sequence whose tombstones have been purged; sync cursors below it must resync.
+ */
+@Entity
+@Table(name = "task_change_counter")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskChangeCounter {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private long lastSeq;
+
+    @Column(nullable = false)
+    private long purgedThrough;
+}
@@ -0,0 +1,54 @@
+package org.flow.flowbackend.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Canonical task priority. Persisted as a small integer code (see {@link TaskPriorityConverter})
+ * and exposed to clients as its lowercase value.
+ */
+public enum TaskPriority {
+    LOW(0, "low"),
+    MEDIUM(1, "medium"),
+    HIGH(2, "high"),
+    URGENT(3, "urgent");
+
+    private final short code;
+    private final String value;
+
+    TaskPriority(int code, String value) {
+        this.code = (short) code;
+        this.value = value;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+
+    public static TaskPriority fromCode(short code) {
+        for (TaskPriority priority : values()) {
+            if (priority.code == code) {
+                return priority;
+            }
+        }
+        throw new RuntimeException("Unknown task priority code: " + code);
+    }
+
+    @JsonCreator
+    public static TaskPriority fromValue(String value) {
+        if (value == null) {
+            return null;
+        }
+        for (TaskPriority priority : values()) {
+            if (priority.value.equalsIgnoreCase(value.trim())) {
+                return priority;
+            }
+        }
+        throw new RuntimeException("Invalid task priority: " + value);
+    }
+}
@@ -0,0 +1,18 @@
+package org.flow.flowbackend.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class TaskPriorityConverter implements AttributeConverter<TaskPriority, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(TaskPriority attribute) {
+        return attribute != null ? attribute.getCode() : null;
+    }
+
+    @Override
+    public TaskPriority convertToEntityAttribute(Short dbData) {
+        return dbData != null ? TaskPriority.fromCode(dbData) : null;
+    }
+}
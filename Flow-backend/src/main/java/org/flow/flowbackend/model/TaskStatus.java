@@ -0,0 +1,68 @@
+package org.flow.flowbackend.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Canonical task status. Persisted as a small integer code (see {@link TaskStatusConverter})
+ * and exposed to clients as its lowercase value.
+ */
+public enum TaskStatus {
+    TODO(0, "todo"),
+    IN_PROGRESS(1, "in_progress"),
+    REVIEW(2, "review"),
+    BLOCKED(3, "blocked"),
+    DONE(4, "done");
+
+    private final short code;
+    private final String value;
+
+    TaskStatus(int code, String value) {
+        this.code = (short) code;
+        this.value = value;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+
+    public static TaskStatus fromCode(short code) {
+        for (TaskStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new RuntimeException("Unknown task status code: " + code);
+    }
+
+    /**
+     * Parses client input, accepting the legacy spellings ("Done", "completed", "in-progress", ...).
+     */
+    @JsonCreator
+    public static TaskStatus fromValue(String value) {
+        if (value == null) {
+            return null;
+        }
+        switch (value.trim().toLowerCase().replace("-", "_")) {
+            case "todo":
+                return TODO;
+            case "in_progress":
+            case "inprogress":
+                return IN_PROGRESS;
+            case "review":
+                return REVIEW;
+            case "blocked":
+                return BLOCKED;
+            case "done":
+            case "completed":
+                return DONE;
+            default:
+                throw new RuntimeException("Invalid task status: " + value);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.flow.flowbackend.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class TaskStatusConverter implements AttributeConverter<TaskStatus, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(TaskStatus attribute) {
+        return attribute != null ? attribute.getCode() : null;
+    }
+
+    @Override
+    public TaskStatus convertToEntityAttribute(Short dbData) {
+        return dbData != null ? TaskStatus.fromCode(dbData) : null;
+    }
+}
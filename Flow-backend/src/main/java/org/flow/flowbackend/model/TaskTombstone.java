@@ -0,0 +1,33 @@
+package org.flow.flowbackend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.OffsetDateTime;
+
+/**
+ * Record of a deleted task, kept so delta sync can report the delete. Task ids are never reused,
+ * so the task id is the key.
+ */
+@Entity
+@Table(name = "task_tombstones", indexes = {
+        @Index(name = "idx_task_tombstones_seq", columnList = "change_seq, task_id"),
+        @Index(name = "idx_task_tombstones_project_seq", columnList = "project_id, change_seq, task_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskTombstone {
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
+    @Column(nullable = false)
+    private OffsetDateTime deletedAt;
+}
@@ -39,6 +39,15 @@ public class WebhookConfig {
     @Column(name = "target_roles")
     private List<String> targetRoles; // PROJECT_MANAGER, TEAM_MEMBER, etc.
 
+    @Column(name = "batch_window_ms")
+    private Integer batchWindowMs; // Optional: buffer events this long and send them as one JSON array
+
+    @Column(name = "batch_max_size")
+    private Integer batchMaxSize; // Send a buffered batch early once it holds this many events
+
+    @Column(name = "max_requests_per_minute")
+    private Integer maxRequestsPerMinute; // Optional receiver quota, per instance
+
     @Column(name = "created_at", nullable = false)
     private OffsetDateTime createdAt = OffsetDateTime.now();
 
@@ -0,0 +1,72 @@
+package org.flow.flowbackend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.OffsetDateTime;
+
+/**
+ * Webhook outbox row: one event for one endpoint. Rows are written in the transaction that raised
+ * the event and drained by the webhook dispatcher, so a delivery survives restarts and slow or
+ * failing receivers never hold up the request that produced it.
+ *
+ * nextAttemptAt is when the row is next due. While a worker is sending it, it holds the lease end
+ * instead, so a row left "sending" by a crashed instance becomes due again on its own. For a
+ * webhook in batched mode, a row not attempted yet is due when its batch is to be sent.
+ */
+@Entity
+@Table(name = "webhook_deliveries", indexes = {
+        @Index(name = "idx_webhook_deliveries_due", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_webhook_deliveries_org_status", columnList = "organization_id, status, id"),
+        @Index(name = "idx_webhook_deliveries_config_status", columnList = "webhook_config_id, status, next_attempt_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WebhookDelivery {
+
+    public static final String STATUS_PENDING = "pending";
+    public static final String STATUS_SENDING = "sending";
+    public static final String STATUS_DELIVERED = "delivered";
+    public static final String STATUS_DEAD = "dead";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "webhook_config_id", nullable = false)
+    private Long webhookConfigId;
+
+    @Column(name = "organization_id", nullable = false)
+    private Long organizationId;
+
+    @Column(name = "webhook_url", nullable = false)
+    private String webhookUrl;
+
+    @Column(name = "event_type", nullable = false, length = 50)
+    private String eventType;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false, length = 20)
+    private String status; // pending, sending, delivered, dead
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private OffsetDateTime nextAttemptAt;
+
+    @Column(name = "last_status_code")
+    private Integer lastStatusCode;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private OffsetDateTime completedAt; // delivered or dead-lettered
+}
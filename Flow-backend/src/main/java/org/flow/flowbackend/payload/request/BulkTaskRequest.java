@@ -0,0 +1,16 @@
+package org.flow.flowbackend.payload.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTaskRequest {
+    private List<Long> taskIds; // for reorder: the tasks in their new order
+    private String status; // bulk status change
+    private Long userId; // bulk assign; null unassigns
+}
@@ -24,6 +24,8 @@ public class CreateTaskRequest {
     private Double estimatedHours;
     
     private Long assignedToId;
+
+    private Long parentTaskId;
     
     @NotNull(message = "Project ID is required")
     private Long projectId;
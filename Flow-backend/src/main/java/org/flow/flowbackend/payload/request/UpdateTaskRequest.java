@@ -18,5 +18,5 @@ public class UpdateTaskRequest {
     private Double estimatedHours;
     private Double actualHours;
     private Long assignedToId;
-    private Integer orderIndex;
+    private Integer orderIndex; // Position on the project board, 0 first; moves the task there
 }
@@ -21,6 +21,8 @@ public class TaskDTO {
     private Double estimatedHours;
     private Double actualHours;
     private Integer orderIndex;
+    private String rank;
+    private Long version;
     
     // Project info
     private Long projectId;
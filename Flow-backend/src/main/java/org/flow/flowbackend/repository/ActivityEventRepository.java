@@ -0,0 +1,38 @@
+package org.flow.flowbackend.repository;
+
+import org.flow.flowbackend.model.ActivityEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Repository
+public interface ActivityEventRepository extends JpaRepository<ActivityEvent, Long> {
+
+    @Query("SELECT e FROM ActivityEvent e WHERE e.organizationId = :organizationId " +
+           "ORDER BY e.createdAt DESC, e.id DESC")
+    List<ActivityEvent> findLatestByOrganization(@Param("organizationId") Long organizationId, Pageable limit);
+
+    @Query("SELECT e FROM ActivityEvent e WHERE e.organizationId = :organizationId " +
+           "AND (e.createdAt < :createdAt OR (e.createdAt = :createdAt AND e.id < :id)) " +
+           "ORDER BY e.createdAt DESC, e.id DESC")
+    List<ActivityEvent> findByOrganizationBefore(@Param("organizationId") Long organizationId,
+                                                 @Param("createdAt") OffsetDateTime createdAt,
+                                                 @Param("id") Long id,
+                                                 Pageable limit);
+
+    @Query("SELECT e FROM ActivityEvent e WHERE e.type = :type ORDER BY e.createdAt DESC, e.id DESC")
+    List<ActivityEvent> findLatestByType(@Param("type") String type, Pageable limit);
+
+    @Query("SELECT e FROM ActivityEvent e WHERE e.type = :type " +
+           "AND (e.createdAt < :createdAt OR (e.createdAt = :createdAt AND e.id < :id)) " +
+           "ORDER BY e.createdAt DESC, e.id DESC")
+    List<ActivityEvent> findByTypeBefore(@Param("type") String type,
+                                         @Param("createdAt") OffsetDateTime createdAt,
+                                         @Param("id") Long id,
+                                         Pageable limit);
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,4 +34,10 @@ public interface OrganizationMemberRepository extends JpaRepository<Organization
     long countByOrganization(Organization organization);
 
     long countByOrganizationId(Long organizationId);
+
+    @Query("SELECT COUNT(om) FROM OrganizationMember om WHERE om.organization.id IN :organizationIds")
+    long countByOrganizationIds(@Param("organizationIds") Collection<Long> organizationIds);
+
+    @Query("SELECT om.organization.id FROM OrganizationMember om WHERE om.user = :user")
+    List<Long> findOrganizationIdsByUser(@Param("user") User user);
 }
@@ -18,4 +18,7 @@ public interface OrganizationRepository extends JpaRepository<Organization, Long
     
     @Query("SELECT COUNT(p) FROM Project p WHERE p.organization.id = :orgId")
     int countProjectsByOrganizationId(@Param("orgId") Long orgId);
+
+    @Query("SELECT o.id FROM Organization o WHERE o.orgAdmin = :orgAdmin")
+    List<Long> findIdsByOrgAdmin(@Param("orgAdmin") User orgAdmin);
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,4 +30,13 @@ public interface ProjectMemberRepository extends JpaRepository<ProjectMember, Lo
     List<ProjectMember> findClientsByProjectId(@Param("projectId") Long projectId);
     
     long countByProject(Project project);
+
+    @Query("SELECT pm.project.id FROM ProjectMember pm WHERE pm.user = :user")
+    List<Long> findProjectIdsByUser(@Param("user") User user);
+
+    @Query("SELECT DISTINCT pm.project.organization.id FROM ProjectMember pm WHERE pm.user = :user")
+    List<Long> findOrganizationIdsByUser(@Param("user") User user);
+
+    @Query("SELECT COUNT(DISTINCT pm.user.id) FROM ProjectMember pm WHERE pm.project.id IN :projectIds")
+    long countDistinctUsersByProjectIds(@Param("projectIds") Collection<Long> projectIds);
 }
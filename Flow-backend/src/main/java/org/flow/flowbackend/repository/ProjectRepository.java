@@ -1,11 +1,17 @@
 package org.flow.flowbackend.repository;
 
+import jakarta.persistence.LockModeType;
 import org.flow.flowbackend.model.Organization;
 import org.flow.flowbackend.model.Project;
 import org.flow.flowbackend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
@@ -14,4 +20,23 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
     List<Project> findByProjectManager(User projectManager);
     long countByOrganization(Organization organization);
     long countByIsActiveTrue();
+
+    @Query("SELECT COUNT(p) FROM Project p WHERE p.organization.id IN :organizationIds")
+    long countByOrganizationIds(@Param("organizationIds") Collection<Long> organizationIds);
+
+    @Query("SELECT DISTINCT p.organization.id FROM Project p WHERE p.projectManager = :user OR p.createdBy = :user")
+    List<Long> findOrganizationIdsByManagerOrCreator(@Param("user") User user);
+
+    /**
+     * Locks the project row; serializes rank rebalances with moves on the same board.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Project p WHERE p.id = :id")
+    Optional<Project> findForUpdate(@Param("id") Long id);
+
+    @Query("SELECT p.version FROM Project p WHERE p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT p.id FROM Project p ORDER BY p.id")
+    List<Long> findAllIds();
 }
\ No newline at end of file
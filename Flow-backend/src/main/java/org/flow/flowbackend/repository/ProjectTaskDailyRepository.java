@@ -0,0 +1,44 @@
+package org.flow.flowbackend.repository;
+
+import org.flow.flowbackend.model.ProjectTaskDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProjectTaskDailyRepository extends JpaRepository<ProjectTaskDaily, Long> {
+
+    /**
+     * Served by uk_project_task_daily_project_day as a single range scan.
+     */
+    @Query("SELECT d FROM ProjectTaskDaily d WHERE d.projectId = :projectId AND d.day BETWEEN :from AND :to ORDER BY d.day")
+    List<ProjectTaskDaily> findRange(@Param("projectId") Long projectId,
+                                     @Param("from") LocalDate from,
+                                     @Param("to") LocalDate to);
+
+    List<ProjectTaskDaily> findByDayAndProjectIdIn(LocalDate day, Collection<Long> projectIds);
+
+    boolean existsByDayAndSnapshotAtIsNotNull(LocalDate day);
+
+    @Modifying
+    @Query("UPDATE ProjectTaskDaily d SET d.createdTasks = d.createdTasks + :created, d.completedTasks = d.completedTasks + :completed " +
+           "WHERE d.projectId = :projectId AND d.day = :day")
+    int addActivity(@Param("projectId") Long projectId,
+                    @Param("day") LocalDate day,
+                    @Param("created") long created,
+                    @Param("completed") long completed);
+
+    @Modifying
+    @Query("DELETE FROM ProjectTaskDaily d WHERE d.projectId = :projectId")
+    int deleteByProject(@Param("projectId") Long projectId);
+
+    @Modifying
+    @Query("DELETE FROM ProjectTaskDaily d WHERE d.projectId NOT IN (SELECT p.id FROM Project p)")
+    int deleteOrphans();
+}
@@ -0,0 +1,58 @@
+package org.flow.flowbackend.repository;
+
+import jakarta.persistence.LockModeType;
+import org.flow.flowbackend.model.ProjectTaskStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface ProjectTaskStatsRepository extends JpaRepository<ProjectTaskStats, Long> {
+
+    /**
+     * Summed counters over a set of projects.
+     */
+    interface TaskTotals {
+        Long getTotal();
+        Long getDone();
+        Long getInProgress();
+    }
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ProjectTaskStats s WHERE s.projectId = :projectId")
+    Optional<ProjectTaskStats> findForUpdate(@Param("projectId") Long projectId);
+
+    @Modifying
+    @Query("UPDATE ProjectTaskStats s SET s.total = s.total + :total, s.todo = s.todo + :todo, " +
+           "s.inProgress = s.inProgress + :inProgress, s.done = s.done + :done, s.overdue = s.overdue + :overdue, " +
+           "s.estimatedHours = s.estimatedHours + :estimatedHours, s.actualHours = s.actualHours + :actualHours, " +
+           "s.updatedAt = :updatedAt WHERE s.projectId = :projectId")
+    int applyDelta(@Param("projectId") Long projectId,
+                   @Param("total") long total,
+                   @Param("todo") long todo,
+                   @Param("inProgress") long inProgress,
+                   @Param("done") long done,
+                   @Param("overdue") long overdue,
+                   @Param("estimatedHours") double estimatedHours,
+                   @Param("actualHours") double actualHours,
+                   @Param("updatedAt") OffsetDateTime updatedAt);
+
+    @Query("SELECT COALESCE(SUM(s.total), 0) AS total, COALESCE(SUM(s.done), 0) AS done, " +
+           "COALESCE(SUM(s.inProgress), 0) AS inProgress FROM ProjectTaskStats s WHERE s.projectId IN :projectIds")
+    TaskTotals sumByProjectIds(@Param("projectIds") Collection<Long> projectIds);
+
+    @Query("SELECT COALESCE(SUM(s.total), 0) AS total, COALESCE(SUM(s.done), 0) AS done, " +
+           "COALESCE(SUM(s.inProgress), 0) AS inProgress FROM ProjectTaskStats s WHERE s.organizationId IN :organizationIds")
+    TaskTotals sumByOrganizationIds(@Param("organizationIds") Collection<Long> organizationIds);
+
+    @Modifying
+    @Query("DELETE FROM ProjectTaskStats s WHERE s.projectId NOT IN (SELECT p.id FROM Project p)")
+    int deleteOrphans();
+}
@@ -0,0 +1,29 @@
+package org.flow.flowbackend.repository;
+
+import org.flow.flowbackend.model.TaskChangeCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TaskChangeCounterRepository extends JpaRepository<TaskChangeCounter, Long> {
+
+    /**
+     * Bumps the counter; the row stays locked until the calling transaction ends.
+     */
+    @Modifying
+    @Query("UPDATE TaskChangeCounter c SET c.lastSeq = c.lastSeq + 1 WHERE c.id = :id")
+    int increment(@Param("id") Long id);
+
+    @Query("SELECT c.lastSeq FROM TaskChangeCounter c WHERE c.id = :id")
+    Long findLastSeq(@Param("id") Long id);
+
+    @Query("SELECT c.purgedThrough FROM TaskChangeCounter c WHERE c.id = :id")
+    Long findPurgedThrough(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE TaskChangeCounter c SET c.purgedThrough = :seq WHERE c.id = :id AND c.purgedThrough < :seq")
+    int advancePurgedThrough(@Param("id") Long id, @Param("seq") long seq);
+}
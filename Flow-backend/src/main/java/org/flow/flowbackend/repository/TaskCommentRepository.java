@@ -3,8 +3,12 @@ package org.flow.flowbackend.repository;
 import org.flow.flowbackend.model.Task;
 import org.flow.flowbackend.model.TaskComment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,4 +20,8 @@ public interface TaskCommentRepository extends JpaRepository<TaskComment, Long>
     long countByTask(Task task);
     
     long countByTaskId(Long taskId);
+
+    @Modifying
+    @Query("DELETE FROM TaskComment c WHERE c.task.id IN :taskIds")
+    int deleteByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
 }
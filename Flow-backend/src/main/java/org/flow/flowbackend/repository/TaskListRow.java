@@ -0,0 +1,39 @@
+package org.flow.flowbackend.repository;
+
+import org.flow.flowbackend.model.TaskPriority;
+import org.flow.flowbackend.model.TaskStatus;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Flat task row selected by JPQL constructor expressions for list endpoints, so lists are read
+ * without hydrating Task entities or touching their lazy associations. The comment count comes
+ * from a correlated subquery, which keeps each list a single statement.
+ */
+public record TaskListRow(
+        Long id,
+        String title,
+        String description,
+        TaskStatus status,
+        TaskPriority priority,
+        OffsetDateTime dueDate,
+        Double estimatedHours,
+        Double actualHours,
+        Integer orderIndex,
+        String rank,
+        Long version,
+        Long projectId,
+        String projectName,
+        Long assignedToId,
+        String assignedToFirstName,
+        String assignedToLastName,
+        String assignedToEmail,
+        Long createdById,
+        String createdByFirstName,
+        String createdByLastName,
+        Long parentTaskId,
+        Long commentCount,
+        OffsetDateTime createdAt,
+        OffsetDateTime updatedAt,
+        Long changeSeq) {
+}
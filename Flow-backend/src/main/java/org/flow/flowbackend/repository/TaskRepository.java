@@ -2,18 +2,356 @@ package org.flow.flowbackend.repository;
 
 import org.flow.flowbackend.model.Project;
 import org.flow.flowbackend.model.Task;
+import org.flow.flowbackend.model.TaskPriority;
+import org.flow.flowbackend.model.TaskStatus;
 import org.flow.flowbackend.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
     List<Task> findByProject(Project project);
     List<Task> findByAssignedTo(User user);
-    List<Task> findByAssignedToOrCreatedBy(User assignedTo, User createdBy);
-    List<Task> findByStatus(String status);
-    List<Task> findByProject_ProjectManager(User projectManager);
-    long countByStatus(String status);
+    List<Task> findByStatus(TaskStatus status);
+    long countByStatus(TaskStatus status);
     long countByProject(Project project);
+
+    String LIST_ROW_SELECT = "SELECT new org.flow.flowbackend.repository.TaskListRow(" +
+            "t.id, t.title, t.description, t.status, t.priority, t.dueDate, t.estimatedHours, t.actualHours, t.orderIndex, t.rank, t.version, " +
+            "p.id, p.name, a.id, a.firstName, a.lastName, a.email, c.id, c.firstName, c.lastName, t.parentTask.id, " +
+            "(SELECT COUNT(cm) FROM TaskComment cm WHERE cm.task.id = t.id), t.createdAt, t.updatedAt, t.changeSeq) " +
+            "FROM Task t JOIN t.project p LEFT JOIN t.assignedTo a LEFT JOIN t.createdBy c ";
+
+    /**
+     * List rows of a project in board order, read straight into {@link TaskListRow} in one query.
+     * Tasks not ranked yet come last.
+     */
+    @Query(LIST_ROW_SELECT + "WHERE p.id = :projectId ORDER BY CASE WHEN t.rank IS NULL THEN 1 ELSE 0 END, t.rank, t.id")
+    List<TaskListRow> findListRowsByProjectId(@Param("projectId") Long projectId);
+
+    @Query(LIST_ROW_SELECT + "WHERE t.status = :status")
+    List<TaskListRow> findListRowsByStatus(@Param("status") TaskStatus status);
+
+    /**
+     * Tasks the user is assigned to, created, or manages the project of. Unless allOrganizations
+     * is set, tasks of inactive organizations are left out. Every join is to-one, so each task
+     * comes back exactly once.
+     */
+    @Query(LIST_ROW_SELECT + "JOIN p.organization o " +
+           "WHERE (a.id = :userId OR c.id = :userId OR p.projectManager.id = :userId) " +
+           "AND (:allOrganizations = true OR o.isActive = true)")
+    List<TaskListRow> findListRowsByUser(@Param("userId") Long userId,
+                                         @Param("allOrganizations") boolean allOrganizations);
+
+    @Query(LIST_ROW_SELECT + "JOIN p.organization o " +
+           "WHERE (a.id = :userId OR c.id = :userId OR p.projectManager.id = :userId) AND t.status = :status " +
+           "AND (:allOrganizations = true OR o.isActive = true)")
+    List<TaskListRow> findListRowsByUserAndStatus(@Param("userId") Long userId,
+                                                  @Param("status") TaskStatus status,
+                                                  @Param("allOrganizations") boolean allOrganizations);
+
+    String LIST_ROW_FILTERS = "AND (:status IS NULL OR t.status = :status) " +
+            "AND (:priority IS NULL OR t.priority = :priority) " +
+            "AND (:assigneeId IS NULL OR a.id = :assigneeId) " +
+            "AND (:dueFrom IS NULL OR t.dueDate >= :dueFrom) " +
+            "AND (:dueTo IS NULL OR t.dueDate < :dueTo) ";
+
+    /**
+     * One page of a project's ranked tasks in board order, starting after the (rank, id) cursor.
+     * Served by idx_tasks_project_rank, or idx_tasks_project_status_rank when filtering by status;
+     * pass a Pageable to cap the rows. Tasks not ranked yet follow from {@link #findUnrankedPageByProjectId}.
+     */
+    @Query(LIST_ROW_SELECT + "WHERE p.id = :projectId " +
+           "AND (t.rank > :afterRank OR (t.rank = :afterRank AND t.id > :afterId)) " +
+           LIST_ROW_FILTERS + "ORDER BY t.rank, t.id")
+    List<TaskListRow> findPageByProjectId(@Param("projectId") Long projectId,
+                                          @Param("afterRank") String afterRank,
+                                          @Param("afterId") long afterId,
+                                          @Param("status") TaskStatus status,
+                                          @Param("priority") TaskPriority priority,
+                                          @Param("assigneeId") Long assigneeId,
+                                          @Param("dueFrom") OffsetDateTime dueFrom,
+                                          @Param("dueTo") OffsetDateTime dueTo,
+                                          Pageable limit);
+
+    /**
+     * One page of a project's tasks not ranked yet, after the id cursor. They come after every
+     * ranked task on the board, until the startup backfill ranks them.
+     */
+    @Query(LIST_ROW_SELECT + "WHERE p.id = :projectId AND t.rank IS NULL AND t.id > :afterId " +
+           LIST_ROW_FILTERS + "ORDER BY t.id")
+    List<TaskListRow> findUnrankedPageByProjectId(@Param("projectId") Long projectId,
+                                                  @Param("afterId") long afterId,
+                                                  @Param("status") TaskStatus status,
+                                                  @Param("priority") TaskPriority priority,
+                                                  @Param("assigneeId") Long assigneeId,
+                                                  @Param("dueFrom") OffsetDateTime dueFrom,
+                                                  @Param("dueTo") OffsetDateTime dueTo,
+                                                  Pageable limit);
+
+    /**
+     * One page of the user's tasks (see {@link #findListRowsByUser}), newest first, before the id cursor.
+     */
+    @Query(LIST_ROW_SELECT + "JOIN p.organization o " +
+           "WHERE (a.id = :userId OR c.id = :userId OR p.projectManager.id = :userId) " +
+           "AND (:allOrganizations = true OR o.isActive = true) AND t.id < :beforeId " +
+           LIST_ROW_FILTERS + "ORDER BY t.id DESC")
+    List<TaskListRow> findPageByUser(@Param("userId") Long userId,
+                                     @Param("allOrganizations") boolean allOrganizations,
+                                     @Param("beforeId") long beforeId,
+                                     @Param("status") TaskStatus status,
+                                     @Param("priority") TaskPriority priority,
+                                     @Param("assigneeId") Long assigneeId,
+                                     @Param("dueFrom") OffsetDateTime dueFrom,
+                                     @Param("dueTo") OffsetDateTime dueTo,
+                                     Pageable limit);
+
+    /**
+     * Tasks of a bulk operation with everything the stats, activity and notification updates read.
+     */
+    @Query("SELECT t FROM Task t JOIN FETCH t.project p JOIN FETCH p.organization LEFT JOIN FETCH p.projectManager " +
+           "LEFT JOIN FETCH t.assignedTo WHERE t.id IN :ids")
+    List<Task> findAllForBulkUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * What a task's ETag is made of, read without loading the task.
+     */
+    interface TaskVersion {
+        Long getVersion();
+        Long getCommentCount();
+    }
+
+    @Query("SELECT t.version AS version, (SELECT COUNT(c) FROM TaskComment c WHERE c.task.id = t.id) AS commentCount " +
+           "FROM Task t WHERE t.id = :id")
+    Optional<TaskVersion> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT t.id FROM Task t WHERE t.parentTask.id IN :ids")
+    List<Long> findIdsByParentTaskIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.parentTask = null, t.version = t.version + 1 WHERE t.parentTask.id IN :ids")
+    int clearParentTask(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Task t WHERE t.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    // ===================== Change Sequence =====================
+
+    /**
+     * Tasks of a project changed after the (changeSeq, id) cursor, oldest change first.
+     * Served by idx_tasks_project_change_seq.
+     */
+    @Query(LIST_ROW_SELECT + "WHERE p.id = :projectId " +
+           "AND (t.changeSeq > :afterSeq OR (t.changeSeq = :afterSeq AND t.id > :afterId)) " +
+           "ORDER BY t.changeSeq, t.id")
+    List<TaskListRow> findChangesByProjectId(@Param("projectId") Long projectId,
+                                             @Param("afterSeq") long afterSeq,
+                                             @Param("afterId") long afterId,
+                                             Pageable limit);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.changeSeq = :changeSeq WHERE t.id IN :ids")
+    int stampChangeSeq(@Param("ids") Collection<Long> ids, @Param("changeSeq") long changeSeq);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.changeSeq = 0 WHERE t.changeSeq IS NULL")
+    int backfillChangeSeq();
+
+    @Query("SELECT MAX(t.changeSeq) FROM Task t")
+    Long findMaxChangeSeq();
+
+    @Query("SELECT t.id FROM Task t WHERE t.project.id = :projectId")
+    List<Long> findIdsByProjectId(@Param("projectId") Long projectId);
+
+    // ===================== Board Ranks =====================
+
+    @Query("SELECT MAX(t.rank) FROM Task t WHERE t.project.id = :projectId")
+    String findMaxRank(@Param("projectId") Long projectId);
+
+    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId " +
+           "ORDER BY CASE WHEN t.rank IS NULL THEN 1 ELSE 0 END, t.rank, t.orderIndex, t.id")
+    List<Task> findForRebalance(@Param("projectId") Long projectId);
+
+    // Board order of the project's other tasks, unranked ones last
+    @Query("SELECT t.id FROM Task t WHERE t.project.id = :projectId AND t.id <> :taskId " +
+           "ORDER BY CASE WHEN t.rank IS NULL THEN 1 ELSE 0 END, t.rank, t.id")
+    List<Long> findBoardOrderIdsExcept(@Param("projectId") Long projectId, @Param("taskId") Long taskId);
+
+    @Query("SELECT DISTINCT t.project.id FROM Task t WHERE t.rank IS NULL")
+    List<Long> findProjectIdsWithUnrankedTasks();
+
+    // ===================== Subtask Hierarchy =====================
+    // Recursive CTEs over parent_task_id (idx_tasks_parent); maxDepth bounds the walk
+
+    String SUBTREE_CTE = "WITH RECURSIVE subtree (id, depth) AS (" +
+            "SELECT id, 0 FROM tasks WHERE id = :rootId " +
+            "UNION ALL SELECT c.id, s.depth + 1 FROM tasks c JOIN subtree s ON c.parent_task_id = s.id " +
+            "WHERE s.depth < :maxDepth) ";
+
+    /**
+     * Row of a subtree walk: one task and its depth below the root (the root itself is depth 0).
+     */
+    interface TaskTreeRow {
+        Long getId();
+        Long getParentTaskId();
+        String getTitle();
+        Short getStatus();
+        Short getPriority();
+        Long getAssignedToId();
+        String getAssignedToFirstName();
+        String getAssignedToLastName();
+        Double getEstimatedHours();
+        Double getActualHours();
+        String getBoardRank();
+        Integer getDepth();
+    }
+
+    /**
+     * The task and all its subtasks, parents before children and siblings in board order.
+     */
+    @Query(value = SUBTREE_CTE +
+           "SELECT t.id AS id, t.parent_task_id AS parentTaskId, t.title AS title, t.status AS status, " +
+           "t.priority AS priority, t.assigned_to AS assignedToId, a.first_name AS assignedToFirstName, " +
+           "a.last_name AS assignedToLastName, t.estimated_hours AS estimatedHours, t.actual_hours AS actualHours, " +
+           "t.board_rank AS boardRank, s.depth AS depth " +
+           "FROM subtree s JOIN tasks t ON t.id = s.id LEFT JOIN users a ON a.id = t.assigned_to " +
+           "ORDER BY s.depth, t.board_rank, t.id", nativeQuery = true)
+    List<TaskTreeRow> findSubtree(@Param("rootId") Long rootId, @Param("maxDepth") int maxDepth);
+
+    /**
+     * Row of an ancestor walk; depth counts the steps up from the starting task.
+     */
+    interface TaskPathRow {
+        Long getId();
+        String getTitle();
+        Short getStatus();
+        Integer getDepth();
+    }
+
+    /**
+     * The task and its ancestors, root first and the task itself last.
+     */
+    @Query(value = "WITH RECURSIVE ancestors (id, parent_task_id, depth) AS (" +
+           "SELECT id, parent_task_id, 0 FROM tasks WHERE id = :taskId " +
+           "UNION ALL SELECT p.id, p.parent_task_id, a.depth + 1 FROM tasks p JOIN ancestors a ON p.id = a.parent_task_id " +
+           "WHERE a.depth < :maxDepth) " +
+           "SELECT t.id AS id, t.title AS title, t.status AS status, a.depth AS depth " +
+           "FROM ancestors a JOIN tasks t ON t.id = a.id ORDER BY a.depth DESC", nativeQuery = true)
+    List<TaskPathRow> findPath(@Param("taskId") Long taskId, @Param("maxDepth") int maxDepth);
+
+    /**
+     * Totals over a task's subtree: subtasks (the root excluded), completed subtasks, whether the
+     * root itself is done, the deepest level below the root, and hours summed over the root and
+     * every subtask.
+     */
+    interface SubtreeRollup {
+        Long getSubtaskCount();
+        Long getCompletedSubtasks();
+        Integer getDone();
+        Integer getHeight();
+        Double getEstimatedHours();
+        Double getActualHours();
+    }
+
+    @Query(value = SUBTREE_CTE +
+           "SELECT COUNT(*) - 1 AS subtaskCount, " +
+           "COALESCE(SUM(CASE WHEN s.depth > 0 AND t.status = :doneStatus THEN 1 ELSE 0 END), 0) AS completedSubtasks, " +
+           "MAX(CASE WHEN s.depth = 0 AND t.status = :doneStatus THEN 1 ELSE 0 END) AS done, " +
+           "MAX(s.depth) AS height, COALESCE(SUM(t.estimated_hours), 0) AS estimatedHours, " +
+           "COALESCE(SUM(t.actual_hours), 0) AS actualHours " +
+           "FROM subtree s JOIN tasks t ON t.id = s.id", nativeQuery = true)
+    SubtreeRollup rollUpSubtree(@Param("rootId") Long rootId,
+                                @Param("maxDepth") int maxDepth,
+                                @Param("doneStatus") short doneStatus);
+
+    @Query("SELECT DISTINCT t.project.organization.id FROM Task t WHERE t.assignedTo = :user")
+    List<Long> findOrganizationIdsByAssignee(@Param("user") User user);
+
+    /**
+     * Open tasks due in [from, to), soonest first; pass a Pageable to cap the rows.
+     * Served by idx_tasks_due_date, which is walked in due-date order until the limit is reached.
+     */
+    @Query("SELECT t FROM Task t JOIN FETCH t.project p WHERE p.organization.id IN :organizationIds " +
+           "AND t.dueDate >= :from AND t.dueDate < :to AND t.status NOT IN :closedStatuses ORDER BY t.dueDate, t.id")
+    List<Task> findDueBetweenByOrganizationIds(@Param("organizationIds") Collection<Long> organizationIds,
+                                               @Param("from") OffsetDateTime from,
+                                               @Param("to") OffsetDateTime to,
+                                               @Param("closedStatuses") Collection<TaskStatus> closedStatuses,
+                                               Pageable limit);
+
+    @Query("SELECT t FROM Task t JOIN FETCH t.project p WHERE p.id IN :projectIds " +
+           "AND t.dueDate >= :from AND t.dueDate < :to AND t.status NOT IN :closedStatuses ORDER BY t.dueDate, t.id")
+    List<Task> findDueBetweenByProjectIds(@Param("projectIds") Collection<Long> projectIds,
+                                          @Param("from") OffsetDateTime from,
+                                          @Param("to") OffsetDateTime to,
+                                          @Param("closedStatuses") Collection<TaskStatus> closedStatuses,
+                                          Pageable limit);
+
+    /**
+     * Served by idx_tasks_assignee_due.
+     */
+    @Query("SELECT t FROM Task t JOIN FETCH t.project p WHERE t.assignedTo = :user " +
+           "AND t.dueDate >= :from AND t.dueDate < :to AND t.status NOT IN :closedStatuses ORDER BY t.dueDate, t.id")
+    List<Task> findDueBetweenByAssignee(@Param("user") User user,
+                                        @Param("from") OffsetDateTime from,
+                                        @Param("to") OffsetDateTime to,
+                                        @Param("closedStatuses") Collection<TaskStatus> closedStatuses,
+                                        Pageable limit);
+
+    /**
+     * Open tasks that are past due or urgent. Served by idx_tasks_project_status_due.
+     */
+    @Query("SELECT COUNT(t) FROM Task t WHERE t.project.id IN :projectIds AND t.status NOT IN :closedStatuses " +
+           "AND (t.dueDate < :dueBefore OR t.priority = :urgentPriority)")
+    long countOverdueOrUrgentByProjectIds(@Param("projectIds") Collection<Long> projectIds,
+                                          @Param("closedStatuses") Collection<TaskStatus> closedStatuses,
+                                          @Param("dueBefore") OffsetDateTime dueBefore,
+                                          @Param("urgentPriority") TaskPriority urgentPriority);
+
+    @Query("SELECT COUNT(t) FROM Task t WHERE t.project.organization.id IN :organizationIds AND t.status NOT IN :closedStatuses " +
+           "AND (t.dueDate < :dueBefore OR t.priority = :urgentPriority)")
+    long countOverdueOrUrgentByOrganizationIds(@Param("organizationIds") Collection<Long> organizationIds,
+                                               @Param("closedStatuses") Collection<TaskStatus> closedStatuses,
+                                               @Param("dueBefore") OffsetDateTime dueBefore,
+                                               @Param("urgentPriority") TaskPriority urgentPriority);
+
+    /**
+     * Row of a grouped task count: number of tasks of one project having one raw status value.
+     */
+    interface ProjectStatusCount {
+        Long getProjectId();
+        TaskStatus getStatus();
+        Long getTaskCount();
+    }
+
+    @Query("SELECT t.project.id AS projectId, t.status AS status, COUNT(t) AS taskCount FROM Task t " +
+           "WHERE t.project.id IN :projectIds GROUP BY t.project.id, t.status")
+    List<ProjectStatusCount> countByProjectIdsGroupedByStatus(@Param("projectIds") Collection<Long> projectIds);
+
+    @Query("SELECT t.project.id AS projectId, t.status AS status, COUNT(t) AS taskCount FROM Task t " +
+           "WHERE t.project.id IN :projectIds AND t.dueDate < :before GROUP BY t.project.id, t.status")
+    List<ProjectStatusCount> countDueBeforeByProjectIdsGroupedByStatus(@Param("projectIds") Collection<Long> projectIds,
+                                                                      @Param("before") OffsetDateTime before);
+
+    /**
+     * Row of grouped hour sums for one project.
+     */
+    interface ProjectHoursSum {
+        Long getProjectId();
+        Double getEstimatedHours();
+        Double getActualHours();
+    }
+
+    @Query("SELECT t.project.id AS projectId, SUM(t.estimatedHours) AS estimatedHours, SUM(t.actualHours) AS actualHours " +
+           "FROM Task t WHERE t.project.id IN :projectIds GROUP BY t.project.id")
+    List<ProjectHoursSum> sumHoursByProjectIds(@Param("projectIds") Collection<Long> projectIds);
 }
\ No newline at end of file
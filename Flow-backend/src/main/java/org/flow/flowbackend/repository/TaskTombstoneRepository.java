@@ -0,0 +1,37 @@
+package org.flow.flowbackend.repository;
+
+import org.flow.flowbackend.model.TaskTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+
+    /**
+     * Tombstones of a project after the (changeSeq, taskId) cursor. Served by idx_task_tombstones_project_seq.
+     */
+    @Query("SELECT t FROM TaskTombstone t WHERE t.projectId = :projectId " +
+           "AND (t.changeSeq > :afterSeq OR (t.changeSeq = :afterSeq AND t.taskId > :afterId)) " +
+           "ORDER BY t.changeSeq, t.taskId")
+    List<TaskTombstone> findPageByProjectId(@Param("projectId") Long projectId,
+                                            @Param("afterSeq") long afterSeq,
+                                            @Param("afterId") long afterId,
+                                            Pageable limit);
+
+    @Query("SELECT MAX(t.changeSeq) FROM TaskTombstone t")
+    Long findMaxChangeSeq();
+
+    @Query("SELECT MAX(t.changeSeq) FROM TaskTombstone t WHERE t.deletedAt < :before")
+    Long findMaxChangeSeqDeletedBefore(@Param("before") OffsetDateTime before);
+
+    @Modifying
+    @Query("DELETE FROM TaskTombstone t WHERE t.changeSeq <= :seq")
+    int deleteThrough(@Param("seq") long seq);
+}
@@ -0,0 +1,95 @@
+package org.flow.flowbackend.repository;
+
+import org.flow.flowbackend.model.WebhookDelivery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Repository
+public interface WebhookDeliveryRepository extends JpaRepository<WebhookDelivery, Long> {
+
+    /**
+     * Deliveries of a batched webhook buffered and not attempted yet.
+     */
+    interface BatchBuffer {
+        long getSize();
+        OffsetDateTime getSendAt();
+    }
+
+    /**
+     * Deliveries due for an attempt, oldest first: pending ones and those whose sending lease ran
+     * out. Served by idx_webhook_deliveries_due.
+     */
+    @Query("SELECT d FROM WebhookDelivery d WHERE d.status IN ('pending', 'sending') AND d.nextAttemptAt <= :now " +
+           "ORDER BY d.nextAttemptAt, d.id")
+    List<WebhookDelivery> findDue(@Param("now") OffsetDateTime now, Pageable limit);
+
+    /**
+     * Takes the delivery for one worker until leaseUntil; 0 when another worker or instance got it first.
+     */
+    @Modifying
+    @Query("UPDATE WebhookDelivery d SET d.status = 'sending', d.nextAttemptAt = :leaseUntil " +
+           "WHERE d.id = :id AND d.status IN ('pending', 'sending') AND d.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id, @Param("now") OffsetDateTime now, @Param("leaseUntil") OffsetDateTime leaseUntil);
+
+    /**
+     * How many events are waiting in the webhook's open batch and when it is due. Served by
+     * idx_webhook_deliveries_config_status.
+     */
+    @Query("SELECT COUNT(d) AS size, MIN(d.nextAttemptAt) AS sendAt FROM WebhookDelivery d " +
+           "WHERE d.webhookConfigId = :webhookConfigId AND d.webhookUrl = :webhookUrl " +
+           "AND d.status = 'pending' AND d.attempts = 0")
+    BatchBuffer findBatchBuffer(@Param("webhookConfigId") Long webhookConfigId, @Param("webhookUrl") String webhookUrl);
+
+    /**
+     * Deliveries to send together in one batch: those due, plus buffered ones not attempted yet.
+     */
+    @Query("SELECT d FROM WebhookDelivery d WHERE d.webhookConfigId = :webhookConfigId AND d.webhookUrl = :webhookUrl " +
+           "AND ((d.status IN ('pending', 'sending') AND d.nextAttemptAt <= :now) OR (d.status = 'pending' AND d.attempts = 0)) " +
+           "ORDER BY d.nextAttemptAt, d.id")
+    List<WebhookDelivery> findBatch(@Param("webhookConfigId") Long webhookConfigId,
+                                    @Param("webhookUrl") String webhookUrl,
+                                    @Param("now") OffsetDateTime now,
+                                    Pageable limit);
+
+    /**
+     * Like claim, also taking buffered deliveries that are not due yet.
+     */
+    @Modifying
+    @Query("UPDATE WebhookDelivery d SET d.status = 'sending', d.nextAttemptAt = :leaseUntil WHERE d.id = :id " +
+           "AND ((d.status IN ('pending', 'sending') AND d.nextAttemptAt <= :now) OR (d.status = 'pending' AND d.attempts = 0))")
+    int claimForBatch(@Param("id") Long id, @Param("now") OffsetDateTime now, @Param("leaseUntil") OffsetDateTime leaseUntil);
+
+    /**
+     * Pushes due deliveries back to until, without using up an attempt. A delivery whose sending
+     * lease ran out goes back to pending.
+     */
+    @Modifying
+    @Query("UPDATE WebhookDelivery d SET d.status = 'pending', d.nextAttemptAt = :until " +
+           "WHERE d.id IN :ids AND d.status IN ('pending', 'sending') AND d.nextAttemptAt <= :now")
+    int defer(@Param("ids") List<Long> ids, @Param("now") OffsetDateTime now, @Param("until") OffsetDateTime until);
+
+    /**
+     * Dead-letters due deliveries that must not be sent, without an attempt.
+     */
+    @Modifying
+    @Query("UPDATE WebhookDelivery d SET d.status = 'dead', d.lastError = :error, d.completedAt = :now " +
+           "WHERE d.id IN :ids AND d.status IN ('pending', 'sending') AND d.nextAttemptAt <= :now")
+    int deadLetter(@Param("ids") List<Long> ids, @Param("now") OffsetDateTime now, @Param("error") String error);
+
+    @Query("SELECT d FROM WebhookDelivery d WHERE d.organizationId = :organizationId " +
+           "AND (:status IS NULL OR d.status = :status) ORDER BY d.id DESC")
+    List<WebhookDelivery> findRecentByOrganizationId(@Param("organizationId") Long organizationId,
+                                                     @Param("status") String status,
+                                                     Pageable limit);
+
+    @Modifying
+    @Query("DELETE FROM WebhookDelivery d WHERE d.status = :status AND d.completedAt < :before")
+    int deleteCompletedBefore(@Param("status") String status, @Param("before") OffsetDateTime before);
+}
@@ -0,0 +1,157 @@
+package org.flow.flowbackend.service;
+
+import org.flow.flowbackend.model.ActivityEvent;
+import org.flow.flowbackend.model.Organization;
+import org.flow.flowbackend.model.Project;
+import org.flow.flowbackend.model.Task;
+import org.flow.flowbackend.model.User;
+import org.flow.flowbackend.repository.ActivityEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Writes and reads the activity_events feed. Writers call the record methods inside their own
+ * transaction, so an event exists exactly when the change it describes was committed.
+ */
+@Service
+public class ActivityService {
+
+    public static final String TYPE_TASK = "task";
+    public static final String TYPE_PROJECT = "project";
+    public static final String TYPE_ORGANIZATION = "organization";
+
+    public static final String ACTION_CREATED = "created";
+    public static final String ACTION_UPDATED = "updated";
+    public static final String ACTION_COMPLETED = "completed";
+    public static final String ACTION_DELETED = "deleted";
+
+    public static final int MAX_PAGE_SIZE = 50;
+
+    private final ActivityEventRepository activityEventRepository;
+
+    @Autowired
+    public ActivityService(ActivityEventRepository activityEventRepository) {
+        this.activityEventRepository = activityEventRepository;
+    }
+
+    // ===================== Recording =====================
+
+    @Transactional
+    public void recordTaskActivity(Task task, String action, User actor) {
+        Project project = task.getProject();
+        String verb = ACTION_CREATED.equals(action) ? "created"
+                : ACTION_COMPLETED.equals(action) ? "completed"
+                : ACTION_DELETED.equals(action) ? "deleted"
+                : "updated";
+        record(ActivityEvent.builder()
+                .organizationId(project.getOrganization().getId())
+                .projectId(project.getId())
+                .projectName(project.getName())
+                .type(TYPE_TASK)
+                .action(action)
+                .entityId(task.getId())
+                .title("Task '" + task.getTitle() + "' " + verb)
+                .actorId(actor != null ? actor.getId() : null)
+                .build());
+    }
+
+    /**
+     * One event standing for the same action applied to several tasks of a project.
+     */
+    @Transactional
+    public void recordBulkTaskActivity(Project project, String action, int taskCount, User actor) {
+        String verb = ACTION_CREATED.equals(action) ? "created"
+                : ACTION_COMPLETED.equals(action) ? "completed"
+                : ACTION_DELETED.equals(action) ? "deleted"
+                : "updated";
+        record(ActivityEvent.builder()
+                .organizationId(project.getOrganization().getId())
+                .projectId(project.getId())
+                .projectName(project.getName())
+                .type(TYPE_TASK)
+                .action(action)
+                .title(taskCount + (taskCount == 1 ? " task " : " tasks ") + verb + " in '" + project.getName() + "'")
+                .actorId(actor != null ? actor.getId() : null)
+                .build());
+    }
+
+    @Transactional
+    public void recordProjectActivity(Project project, String action, User actor) {
+        String verb = ACTION_CREATED.equals(action) ? "added"
+                : ACTION_DELETED.equals(action) ? "deleted"
+                : "updated";
+        record(ActivityEvent.builder()
+                .organizationId(project.getOrganization().getId())
+                .projectId(project.getId())
+                .projectName(project.getOrganization().getName())
+                .type(TYPE_PROJECT)
+                .action(action)
+                .entityId(project.getId())
+                .title("Project '" + project.getName() + "' " + verb)
+                .actorId(actor != null ? actor.getId() : null)
+                .build());
+    }
+
+    @Transactional
+    public void recordOrganizationActivity(Organization organization, String action, User actor) {
+        record(ActivityEvent.builder()
+                .organizationId(organization.getId())
+                .type(TYPE_ORGANIZATION)
+                .action(action)
+                .entityId(organization.getId())
+                .title("Organization '" + organization.getName() + "' " + action)
+                .actorId(actor != null ? actor.getId() : null)
+                .build());
+    }
+
+    private void record(ActivityEvent event) {
+        event.setCreatedAt(OffsetDateTime.now());
+        activityEventRepository.save(event);
+    }
+
+    // ===================== Feed =====================
+
+    /**
+     * Newest-first page of events for the given organizations (and, optionally, organization-level
+     * events of every tenant). Each source is read with its own index range scan bounded by the
+     * limit and the results are merged, so cost depends on page size rather than history length.
+     *
+     * @param before id of the last event of the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public List<ActivityEvent> getFeed(Collection<Long> organizationIds, boolean includeAllOrganizationEvents,
+                                       Long before, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        PageRequest page = PageRequest.of(0, pageSize);
+
+        ActivityEvent cursor = before != null ? activityEventRepository.findById(before).orElse(null) : null;
+        if (before != null && cursor == null) {
+            return List.of();
+        }
+
+        Map<Long, ActivityEvent> merged = new HashMap<>();
+        for (Long organizationId : organizationIds) {
+            List<ActivityEvent> rows = cursor == null
+                    ? activityEventRepository.findLatestByOrganization(organizationId, page)
+                    : activityEventRepository.findByOrganizationBefore(organizationId, cursor.getCreatedAt(), cursor.getId(), page);
+            rows.forEach(e -> merged.put(e.getId(), e));
+        }
+        if (includeAllOrganizationEvents) {
+            List<ActivityEvent> rows = cursor == null
+                    ? activityEventRepository.findLatestByType(TYPE_ORGANIZATION, page)
+                    : activityEventRepository.findByTypeBefore(TYPE_ORGANIZATION, cursor.getCreatedAt(), cursor.getId(), page);
+            rows.forEach(e -> merged.put(e.getId(), e));
+        }
+
+        return merged.values().stream()
+                .sorted(Comparator.comparing(ActivityEvent::getCreatedAt).thenComparing(ActivityEvent::getId).reversed())
+                .limit(pageSize)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,218 @@
+package org.flow.flowbackend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.flow.flowbackend.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache for dashboard sections, keyed by user, roles and section.
+ *
+ * Each entry remembers the organizations it was computed from together with their generation
+ * counters. Writes bump the generation of the affected organization after commit, which makes
+ * exactly the entries depending on it stale; everything else stays cached. Entries computed for a
+ * system-wide scope (SUPER_ADMIN) depend on the global generation, which every write bumps.
+ *
+ * The organizations a user's dashboard depends on are cached per user as well, so a miss on one
+ * section does not resolve them again; invalidateUser drops them with the user's entries.
+ * Generations are kept only for organizations used within the TTL. Every generation, including
+ * that of an organization seen for the first time, is a fresh value from one sequence, so an
+ * organization that was dropped and comes back never matches an entry computed before.
+ */
+@Component
+public class DashboardCache {
+
+    public static final String SECTION_STATS = "stats";
+    public static final String SECTION_ACTIVITIES = "activities";
+    public static final String SECTION_DEADLINES = "deadlines";
+    public static final String SECTION_SUMMARY = "summary";
+
+    private final Cache<Key, Entry> cache;
+    private final Cache<Long, Scope> scopes;
+    private final Cache<Long, Long> organizationGenerations;
+    private final AtomicLong generationSequence = new AtomicLong();
+    private final AtomicLong globalGeneration = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder staleReads = new LongAdder();
+
+    @Autowired
+    public DashboardCache(@Value("${app.dashboard.cache.max-size:10000}") long maxSize,
+                          @Value("${app.dashboard.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.scopes = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        // An entry lives at most the TTL, so a generation unused for longer has nothing left to check
+        this.organizationGenerations = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofSeconds(ttlSeconds * 2))
+                .build();
+    }
+
+    /**
+     * Returns the cached section for this user, computing it on a miss.
+     *
+     * @param scope organizations the value is derived from, or null for a system-wide value;
+     *              only evaluated on a miss when the user's scope is not cached
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(User user, String section, String variant, Supplier<Set<Long>> scope, Supplier<T> loader) {
+        String roles = rolesOf(user);
+        Key key = new Key(user.getId(), roles, section, variant);
+
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null) {
+            if (isCurrent(entry)) {
+                hits.increment();
+                return (T) entry.getValue();
+            }
+            staleReads.increment();
+            cache.asMap().remove(key, entry);
+        }
+        misses.increment();
+
+        // Snapshot generations before computing so a concurrent write marks the result stale
+        Set<Long> organizationIds = scopeOf(user.getId(), roles, scope);
+        Map<Long, Long> generations = new HashMap<>();
+        if (organizationIds != null) {
+            for (Long organizationId : organizationIds) {
+                generations.put(organizationId, generationOf(organizationId));
+            }
+        }
+        long global = globalGeneration.get();
+
+        T value = loader.get();
+        cache.put(key, new Entry(value, organizationIds == null, global, generations));
+        return value;
+    }
+
+    /**
+     * Marks every entry derived from this organization stale once the current transaction commits.
+     */
+    public void invalidateOrganization(Long organizationId) {
+        if (organizationId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            organizationGenerations.put(organizationId, generationSequence.incrementAndGet());
+            globalGeneration.incrementAndGet();
+        });
+    }
+
+    /**
+     * Drops all entries of a user whose scope changed (e.g. joined or left an organization or project).
+     */
+    public void invalidateUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            scopes.invalidate(userId);
+            cache.asMap().keySet().removeIf(key -> userId.equals(key.getUserId()));
+        });
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        metrics.put("size", cache.estimatedSize());
+        metrics.put("cachedScopes", scopes.estimatedSize());
+        metrics.put("trackedOrganizations", organizationGenerations.estimatedSize());
+        metrics.put("hits", hitCount);
+        metrics.put("misses", missCount);
+        metrics.put("staleReads", staleReads.sum());
+        metrics.put("hitRate", requests > 0 ? (double) hitCount / requests : 0.0);
+        metrics.put("evictions", cache.stats().evictionCount());
+        return metrics;
+    }
+
+    private boolean isCurrent(Entry entry) {
+        if (entry.isSystemWide()) {
+            return entry.getGlobalGeneration() == globalGeneration.get();
+        }
+        for (Map.Entry<Long, Long> dependency : entry.getGenerations().entrySet()) {
+            if (generationOf(dependency.getKey()) != dependency.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long generationOf(Long organizationId) {
+        return organizationGenerations.get(organizationId, id -> generationSequence.incrementAndGet());
+    }
+
+    // Loaded under the cache's lock for the user, so an invalidateUser meanwhile waits and then drops it
+    private Set<Long> scopeOf(Long userId, String roles, Supplier<Set<Long>> loader) {
+        Scope cached = scopes.get(userId, id -> new Scope(roles, loader.get()));
+        if (!cached.getRoles().equals(roles)) {
+            cached = new Scope(roles, loader.get());
+            scopes.put(userId, cached);
+        }
+        return cached.getOrganizationIds();
+    }
+
+    private String rolesOf(User user) {
+        if (user.getRoles() == null || user.getRoles().isEmpty()) {
+            return "";
+        }
+        List<String> roles = new ArrayList<>(user.getRoles());
+        Collections.sort(roles);
+        return String.join(",", roles);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    @lombok.Value
+    private static class Key {
+        Long userId;
+        String roles;
+        String section;
+        String variant;
+    }
+
+    // organizationIds is null for a system-wide scope
+    @lombok.Value
+    private static class Scope {
+        String roles;
+        Set<Long> organizationIds;
+    }
+
+    @lombok.Value
+    private static class Entry {
+        Object value;
+        boolean systemWide;
+        long globalGeneration;
+        Map<Long, Long> generations;
+    }
+}
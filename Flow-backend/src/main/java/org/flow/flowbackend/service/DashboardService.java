@@ -1,26 +1,57 @@
 package org.flow.flowbackend.service;
 
+import org.flow.flowbackend.model.ActivityEvent;
+import org.flow.flowbackend.model.TaskPriority;
+import org.flow.flowbackend.model.TaskStatus;
 import org.flow.flowbackend.model.User;
 import org.flow.flowbackend.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.flow.flowbackend.model.Task;
 
+/**
+ * Role-aware dashboard data. Concurrent requests that would compute the same result (same section
+ * and same scope, e.g. two admins of the same organization) share one in-flight computation, and
+ * only that computation holds a database connection; the others wait for its result.
+ *
+ * Resolving a user's scope is not shared: the key of the computation is derived from it, so each
+ * request runs those few id lookups itself before joining or starting the computation.
+ */
 @Service
 public class DashboardService {
 
+    private static final List<TaskStatus> CLOSED_STATUSES = List.of(TaskStatus.DONE);
+    private static final TaskPriority URGENT_PRIORITY = TaskPriority.URGENT;
+    private static final int DEADLINE_DAYS = 7;
+    private static final int DEADLINE_LIMIT = 5;
+
     private final OrganizationRepository organizationRepository;
     private final UserRepository userRepository;
     private final ProjectRepository projectRepository;
     private final TaskRepository taskRepository;
     private final OrganizationMemberRepository organizationMemberRepository;
     private final ProjectMemberRepository projectMemberRepository;
+    private final ProjectTaskStatsRepository projectTaskStatsRepository;
+    private final ActivityService activityService;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalescedRequests = new LongAdder();
 
     @Autowired
     public DashboardService(OrganizationRepository organizationRepository,
@@ -28,40 +59,203 @@ public class DashboardService {
                             ProjectRepository projectRepository,
                             TaskRepository taskRepository,
                             OrganizationMemberRepository organizationMemberRepository,
-                            ProjectMemberRepository projectMemberRepository) {
+                            ProjectMemberRepository projectMemberRepository,
+                            ProjectTaskStatsRepository projectTaskStatsRepository,
+                            ActivityService activityService,
+                            PlatformTransactionManager transactionManager) {
         this.organizationRepository = organizationRepository;
         this.userRepository = userRepository;
         this.projectRepository = projectRepository;
         this.taskRepository = taskRepository;
         this.organizationMemberRepository = organizationMemberRepository;
         this.projectMemberRepository = projectMemberRepository;
+        this.projectTaskStatsRepository = projectTaskStatsRepository;
+        this.activityService = activityService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Stats, recent activity and upcoming deadlines in one response, computed from a single
+     * resolution of the user's organizations, projects and tasks.
+     */
+    public Map<String, Object> getDashboardSummary(User user, int activityLimit) {
+        DashboardScope scope = resolveScope(user);
+        String key = "summary:" + getStatsKey(scope) + "|" + getActivitiesKey(scope, null, activityLimit)
+            + "|" + getDeadlinesKey(scope);
+        return singleFlight(key, () -> {
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("stats", getDashboardStats(user, scope));
+            summary.put("activities", getRecentActivities(scope, null, activityLimit));
+            summary.put("deadlines", getUpcomingDeadlines(scope));
+            return summary;
+        });
     }
 
-    @Transactional(readOnly = true)
     public Map<String, Object> getDashboardStats(User user) {
-        Map<String, Object> stats = new HashMap<>();
-        List<String> roles = user.getRoles();
+        DashboardScope scope = resolveScope(user);
+        return singleFlight("stats:" + getStatsKey(scope), () -> getDashboardStats(user, scope));
+    }
 
-        if (roles == null || roles.isEmpty()) {
+    private Map<String, Object> getDashboardStats(User user, DashboardScope scope) {
+        if (scope.role == null) {
             return getDefaultStats();
         }
 
-        // Determine primary role (highest privilege)
-        if (roles.contains("SUPER_ADMIN")) {
-            return getSuperAdminStats();
-        } else if (roles.contains("ORG_ADMIN")) {
-            return getOrgAdminStats(user);
-        } else if (roles.contains("PROJECT_MANAGER")) {
-            return getProjectManagerStats(user);
-        } else if (roles.contains("TEAM_MEMBER")) {
-            return getTeamMemberStats(user);
-        } else if (roles.contains("CLIENT")) {
-            return getClientStats(user);
+        switch (scope.role) {
+            case "SUPER_ADMIN":
+                return getSuperAdminStats();
+            case "ORG_ADMIN":
+                return getOrgAdminStats(scope);
+            case "PROJECT_MANAGER":
+                return getProjectManagerStats(scope);
+            case "TEAM_MEMBER":
+                return getTeamMemberStats(user, scope);
+            case "CLIENT":
+                return getClientStats(user);
+            default:
+                return getDefaultStats();
+        }
+    }
+
+    // ===================== Scope =====================
+
+    /**
+     * What a user's dashboard is computed from. The organization ids are resolved up front (they
+     * also key the shared computations); project and task lists are loaded on first use.
+     */
+    private static class DashboardScope {
+        private final User user;
+        private String role;
+        // Administered or joined organizations (the "Flow" organization for SUPER_ADMIN)
+        private final Set<Long> organizationIds = new HashSet<>();
+        // Organizations whose activity the user may see
+        private final Set<Long> activityOrganizationIds = new HashSet<>();
+        private List<org.flow.flowbackend.model.Project> managedProjects;
+        private List<Task> assignedTasks;
+
+        private DashboardScope(User user) {
+            this.user = user;
+        }
+    }
+
+    private DashboardScope resolveScope(User user) {
+        return readOnlyTransaction.execute(status -> {
+            DashboardScope scope = new DashboardScope(user);
+            scope.role = getPrimaryRole(user.getRoles());
+
+            if ("SUPER_ADMIN".equals(scope.role)) {
+                organizationRepository.findByName("Flow")
+                    .ifPresent(org -> scope.organizationIds.add(org.getId()));
+                return scope;
+            }
+
+            scope.organizationIds.addAll(organizationRepository.findIdsByOrgAdmin(user));
+            scope.organizationIds.addAll(organizationMemberRepository.findOrganizationIdsByUser(user));
+            scope.activityOrganizationIds.addAll(scope.organizationIds);
+            scope.activityOrganizationIds.addAll(projectRepository.findOrganizationIdsByManagerOrCreator(user));
+            scope.activityOrganizationIds.addAll(projectMemberRepository.findOrganizationIdsByUser(user));
+            return scope;
+        });
+    }
+
+    private List<org.flow.flowbackend.model.Project> getManagedProjects(DashboardScope scope) {
+        if (scope.managedProjects == null) {
+            scope.managedProjects = projectRepository.findByProjectManager(scope.user);
+        }
+        return scope.managedProjects;
+    }
+
+    private List<Task> getAssignedTasks(DashboardScope scope) {
+        if (scope.assignedTasks == null) {
+            scope.assignedTasks = taskRepository.findByAssignedTo(scope.user);
+        }
+        return scope.assignedTasks;
+    }
+
+    // Highest-privilege role decides which dashboard a user gets
+    private String getPrimaryRole(List<String> roles) {
+        if (roles == null || roles.isEmpty()) {
+            return null;
         }
+        for (String role : List.of("SUPER_ADMIN", "ORG_ADMIN", "PROJECT_MANAGER", "TEAM_MEMBER", "CLIENT")) {
+            if (roles.contains(role)) {
+                return role;
+            }
+        }
+        return roles.get(0);
+    }
+
+    // ===================== Single-Flight =====================
+
+    /**
+     * Runs the computation in a read-only transaction unless an identical one is already running,
+     * in which case the caller waits for and shares that result.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T singleFlight(String key, Supplier<T> computation) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalescedRequests.increment();
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+
+        try {
+            T result = readOnlyTransaction.execute(status -> computation.get());
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
 
-        return getDefaultStats();
+    /**
+     * Number of requests that were served by another request's in-flight computation.
+     */
+    public long getCoalescedRequestCount() {
+        return coalescedRequests.sum();
     }
 
+    // Keys are equal exactly when the computed sections are equal
+    private String getStatsKey(DashboardScope scope) {
+        if (scope.role == null) {
+            return "DEFAULT";
+        }
+        switch (scope.role) {
+            case "SUPER_ADMIN":
+                return "SUPER_ADMIN";
+            case "ORG_ADMIN":
+                return "ORG_ADMIN:" + new TreeSet<>(scope.organizationIds);
+            default:
+                return scope.role + ":" + scope.user.getId();
+        }
+    }
+
+    private String getActivitiesKey(DashboardScope scope, Long before, int limit) {
+        Set<Long> orgIds = "SUPER_ADMIN".equals(scope.role) ? scope.organizationIds : scope.activityOrganizationIds;
+        return ("SUPER_ADMIN".equals(scope.role) ? "SUPER_ADMIN:" : "") + new TreeSet<>(orgIds) + ":" + before + ":" + limit;
+    }
+
+    private String getDeadlinesKey(DashboardScope scope) {
+        if ("SUPER_ADMIN".equals(scope.role) || "ORG_ADMIN".equals(scope.role)) {
+            return "orgs:" + new TreeSet<>(scope.organizationIds);
+        }
+        if ("PROJECT_MANAGER".equals(scope.role)) {
+            return "manager:" + scope.user.getId();
+        }
+        return "assignee:" + scope.user.getId();
+    }
+
+    // ===================== Stats =====================
+
     private Map<String, Object> getSuperAdminStats() {
         Map<String, Object> stats = new HashMap<>();
         
@@ -76,86 +270,55 @@ public class DashboardService {
         return stats;
     }
 
-    private Map<String, Object> getOrgAdminStats(User user) {
+    private Map<String, Object> getOrgAdminStats(DashboardScope scope) {
         Map<String, Object> stats = new HashMap<>();
         
-        // Get organizations where user is the org admin
-        List<org.flow.flowbackend.model.Organization> adminOrganizations = 
-            organizationRepository.findByOrgAdmin(user);
-        
-        // Also get organizations where user is a member (fallback)
-        List<org.flow.flowbackend.model.OrganizationMember> memberships = 
-            organizationMemberRepository.findByUser(user);
+        // Organizations where user is the org admin, plus organizations where user is a member (fallback)
+        Set<Long> orgIds = scope.organizationIds;
         
-        // Combine both sources
-        Set<Long> processedOrgIds = new HashSet<>();
         long totalProjects = 0;
         long totalMembers = 0;
         long totalTasks = 0;
         long completedTasks = 0;
         
-        // Process organizations where user is the admin
-        for (var org : adminOrganizations) {
-            if (processedOrgIds.contains(org.getId())) continue;
-            processedOrgIds.add(org.getId());
-            
-            List<org.flow.flowbackend.model.Project> projects = projectRepository.findByOrganization(org);
-            totalProjects += projects.size();
-            totalMembers += organizationMemberRepository.findByOrganization(org).size();
-            
-            for (var project : projects) {
-                List<org.flow.flowbackend.model.Task> tasks = taskRepository.findByProject(project);
-                totalTasks += tasks.size();
-                completedTasks += tasks.stream().filter(this::isCompleted).count();
-            }
-        }
-        
-        // Also process organizations from memberships (if not already processed)
-        for (var membership : memberships) {
-            var org = membership.getOrganization();
-            if (processedOrgIds.contains(org.getId())) continue;
-            processedOrgIds.add(org.getId());
-            
-            List<org.flow.flowbackend.model.Project> projects = projectRepository.findByOrganization(org);
-            totalProjects += projects.size();
-            totalMembers += organizationMemberRepository.findByOrganization(org).size();
-            
-            for (var project : projects) {
-                List<org.flow.flowbackend.model.Task> tasks = taskRepository.findByProject(project);
-                totalTasks += tasks.size();
-                completedTasks += tasks.stream().filter(this::isCompleted).count();
-            }
+        if (!orgIds.isEmpty()) {
+            totalProjects = projectRepository.countByOrganizationIds(orgIds);
+            totalMembers = organizationMemberRepository.countByOrganizationIds(orgIds);
+            ProjectTaskStatsRepository.TaskTotals totals = projectTaskStatsRepository.sumByOrganizationIds(orgIds);
+            totalTasks = totals.getTotal();
+            completedTasks = totals.getDone();
         }
         
         stats.put("activeProjects", totalProjects);
         stats.put("teamMembers", totalMembers);
         stats.put("totalTasks", totalTasks);
         stats.put("completedTasks", completedTasks);
-        stats.put("overdueTasks", getOverdueTaskCount(user));
+        stats.put("overdueTasks", getOverdueTaskCount(orgIds));
         stats.put("role", "ORG_ADMIN");
         
         return stats;
     }
 
-    private Map<String, Object> getProjectManagerStats(User user) {
+    private Map<String, Object> getProjectManagerStats(DashboardScope scope) {
         Map<String, Object> stats = new HashMap<>();
         
         // Projects managed by this user
-        List<org.flow.flowbackend.model.Project> managedProjects = projectRepository.findByProjectManager(user);
+        List<org.flow.flowbackend.model.Project> managedProjects = getManagedProjects(scope);
+        List<Long> projectIds = managedProjects.stream()
+            .map(org.flow.flowbackend.model.Project::getId)
+            .collect(Collectors.toList());
         
         long totalTasks = 0;
         long completedTasks = 0;
         long inProgressTasks = 0;
-        Set<Long> teamMemberIds = new HashSet<>();
-        
-        for (var project : managedProjects) {
-            List<org.flow.flowbackend.model.Task> tasks = taskRepository.findByProject(project);
-            totalTasks += tasks.size();
-            completedTasks += tasks.stream().filter(this::isCompleted).count();
-            inProgressTasks += tasks.stream().filter(this::isInProgress).count();
-            
-            // Collect team members
-            projectMemberRepository.findByProject(project).forEach(pm -> teamMemberIds.add(pm.getUser().getId()));
+        long teamMembers = 0;
+        
+        if (!projectIds.isEmpty()) {
+            ProjectTaskStatsRepository.TaskTotals totals = projectTaskStatsRepository.sumByProjectIds(projectIds);
+            totalTasks = totals.getTotal();
+            completedTasks = totals.getDone();
+            inProgressTasks = totals.getInProgress();
+            teamMembers = projectMemberRepository.countDistinctUsersByProjectIds(projectIds);
         }
         
         stats.put("activeProjects", managedProjects.stream().filter(p -> p.isActive()).count());
@@ -163,23 +326,23 @@ public class DashboardService {
         stats.put("totalTasks", totalTasks);
         stats.put("completedTasks", completedTasks);
         stats.put("inProgressTasks", inProgressTasks);
-        stats.put("teamMembers", teamMemberIds.size());
-        stats.put("overdueTasks", getOverdueTaskCountForPM(user));
+        stats.put("teamMembers", teamMembers);
+        stats.put("overdueTasks", getOverdueTaskCountForPM(projectIds));
         stats.put("role", "PROJECT_MANAGER");
         
         return stats;
     }
 
-    private Map<String, Object> getTeamMemberStats(User user) {
+    private Map<String, Object> getTeamMemberStats(User user, DashboardScope scope) {
         Map<String, Object> stats = new HashMap<>();
         
         // Tasks assigned to this user
-        List<org.flow.flowbackend.model.Task> assignedTasks = taskRepository.findByAssignedTo(user);
+        List<org.flow.flowbackend.model.Task> assignedTasks = getAssignedTasks(scope);
         
         long totalAssigned = assignedTasks.size();
         long completed = assignedTasks.stream().filter(this::isCompleted).count();
         long inProgress = assignedTasks.stream().filter(this::isInProgress).count();
-        long todo = assignedTasks.stream().filter(t -> "todo".equalsIgnoreCase(normalizeStatus(t.getStatus()))).count();
+        long todo = assignedTasks.stream().filter(t -> t.getStatus() == TaskStatus.TODO).count();
         
         // Count upcoming deadlines (next 7 days)
         LocalDate now = LocalDate.now();
@@ -210,17 +373,16 @@ public class DashboardService {
         Map<String, Object> stats = new HashMap<>();
         
         // Projects where user is a member (as client)
-        List<org.flow.flowbackend.model.ProjectMember> memberships = projectMemberRepository.findByUser(user);
+        List<Long> projectIds = projectMemberRepository.findProjectIdsByUser(user);
         
-        long totalProjects = memberships.size();
+        long totalProjects = projectIds.size();
         long totalTasks = 0;
         long completedTasks = 0;
         
-        for (var membership : memberships) {
-            var project = membership.getProject();
-            List<org.flow.flowbackend.model.Task> tasks = taskRepository.findByProject(project);
-            totalTasks += tasks.size();
-            completedTasks += tasks.stream().filter(this::isCompleted).count();
+        if (!projectIds.isEmpty()) {
+            ProjectTaskStatsRepository.TaskTotals totals = projectTaskStatsRepository.sumByProjectIds(projectIds);
+            totalTasks = totals.getTotal();
+            completedTasks = totals.getDone();
         }
         
         double completionRate = totalTasks > 0 ? (completedTasks * 100.0 / totalTasks) : 0;
@@ -234,36 +396,14 @@ public class DashboardService {
         return stats;
     }
 
-    // ===== Helpers to normalize status semantics across frontend/backends =====
-    private String normalizeStatus(String status) {
-        if (status == null) return "";
-        String s = status.trim().toLowerCase().replace("-", "_");
-        if ("completed".equals(s)) return "done";
-        if ("in_progress".equals(s) || "inprogress".equals(s)) return "in_progress";
-        return s;
-    }
-
-    private String normalizePriority(String priority) {
-        if (priority == null) return "";
-        return priority.trim().toLowerCase();
-    }
-
+    // ===== Status semantics: review and blocked count as in progress =====
     private boolean isCompleted(Task task) {
-        String s = normalizeStatus(task.getStatus());
-        return "done".equals(s) || "completed".equals(s);
+        return task.getStatus() == TaskStatus.DONE;
     }
 
     private boolean isInProgress(Task task) {
-        String s = normalizeStatus(task.getStatus());
-        return "in_progress".equals(s) || "review".equals(s) || "blocked".equals(s);
-    }
-
-    private boolean isUrgent(Task task) {
-        return "urgent".equals(normalizePriority(task.getPriority()));
-    }
-
-    private boolean isOverdueByDate(Task task, LocalDate today) {
-        return task.getDueDate() != null && task.getDueDate().toLocalDate().isBefore(today);
+        TaskStatus s = task.getStatus();
+        return s == TaskStatus.IN_PROGRESS || s == TaskStatus.REVIEW || s == TaskStatus.BLOCKED;
     }
 
     private Map<String, Object> getDefaultStats() {
@@ -275,141 +415,106 @@ public class DashboardService {
         return stats;
     }
 
-    private long getOverdueTaskCount(User user) {
-        LocalDate today = LocalDate.now();
-        return taskRepository.findAll().stream()
-            .filter(t -> !isCompleted(t))
-            .filter(t -> isOverdueByDate(t, today) || isUrgent(t))
-            .count();
+    private long getOverdueTaskCount(Set<Long> orgIds) {
+        if (orgIds.isEmpty()) {
+            return 0;
+        }
+        return taskRepository.countOverdueOrUrgentByOrganizationIds(orgIds, CLOSED_STATUSES, startOfToday(), URGENT_PRIORITY);
     }
 
-    private long getOverdueTaskCountForPM(User user) {
-        LocalDate today = LocalDate.now();
-        List<org.flow.flowbackend.model.Project> managedProjects = projectRepository.findByProjectManager(user);
-        
-        return managedProjects.stream()
-            .flatMap(p -> taskRepository.findByProject(p).stream())
-            .filter(t -> !isCompleted(t))
-            .filter(t -> isOverdueByDate(t, today) || isUrgent(t))
-            .count();
+    private long getOverdueTaskCountForPM(List<Long> projectIds) {
+        if (projectIds.isEmpty()) {
+            return 0;
+        }
+        return taskRepository.countOverdueOrUrgentByProjectIds(projectIds, CLOSED_STATUSES, startOfToday(), URGENT_PRIORITY);
     }
 
-    @Transactional(readOnly = true)
-    public List<Map<String, Object>> getRecentActivities(User user) {
-        List<Map<String, Object>> activities = new ArrayList<>();
-        List<String> roles = user.getRoles();
+    // A task is overdue once its due date falls before today
+    private OffsetDateTime startOfToday() {
+        return LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toOffsetDateTime();
+    }
+
+    /**
+     * Page of the activity feed, newest first. Pass the id of the last returned activity as
+     * {@code before} to page back through older activity.
+     */
+    public List<Map<String, Object>> getRecentActivities(User user, Long before, int limit) {
+        DashboardScope scope = resolveScope(user);
+        return singleFlight("activities:" + getActivitiesKey(scope, before, limit),
+            () -> getRecentActivities(scope, before, limit));
+    }
+
+    private List<Map<String, Object>> getRecentActivities(DashboardScope scope, Long before, int limit) {
+        List<ActivityEvent> events;
         
-        // SUPER_ADMIN: Show org-level activity only (no task details from other orgs)
-        if (roles != null && roles.contains("SUPER_ADMIN")) {
-            // Show recent organizations created
-            List<org.flow.flowbackend.model.Organization> recentOrgs = organizationRepository.findAll().stream()
-                .sorted((a, b) -> {
-                    if (a.getCreatedAt() == null) return 1;
-                    if (b.getCreatedAt() == null) return -1;
-                    return b.getCreatedAt().compareTo(a.getCreatedAt());
-                })
-                .limit(3)
-                .collect(Collectors.toList());
-            
-            for (var org : recentOrgs) {
-                Map<String, Object> activity = new HashMap<>();
-                activity.put("type", "organization");
-                activity.put("title", "Organization '" + org.getName() + "' created");
-                activity.put("time", org.getCreatedAt().toString());
-                activity.put("projectName", "-");
-                activities.add(activity);
-            }
-            
-            // Show recent projects from "Flow" organization only
-            List<org.flow.flowbackend.model.Project> recentProjects = projectRepository.findAll().stream()
-                .filter(p -> p.getOrganization() != null && "Flow".equalsIgnoreCase(p.getOrganization().getName()))
-                .sorted((a, b) -> {
-                    if (a.getCreatedAt() == null) return 1;
-                    if (b.getCreatedAt() == null) return -1;
-                    return b.getCreatedAt().compareTo(a.getCreatedAt());
-                })
-                .limit(3)
-                .collect(Collectors.toList());
-            
-            for (var project : recentProjects) {
-                Map<String, Object> activity = new HashMap<>();
-                activity.put("type", "project");
-                activity.put("title", "Project '" + project.getName() + "' added");
-                activity.put("time", project.getCreatedAt().toString());
-                String orgName = project.getOrganization() != null ? project.getOrganization().getName() : "Unknown";
-                activity.put("projectName", orgName);
-                activities.add(activity);
-            }
-            
-            return activities;
+        // SUPER_ADMIN: organization-level activity across tenants plus the "Flow" organization's own feed
+        if ("SUPER_ADMIN".equals(scope.role)) {
+            events = activityService.getFeed(scope.organizationIds, true, before, limit);
+        } else {
+            events = activityService.getFeed(scope.activityOrganizationIds, false, before, limit);
         }
         
-        // Other roles: Show recent tasks
-        List<org.flow.flowbackend.model.Task> recentTasks = taskRepository.findAll().stream()
-            .sorted((a, b) -> {
-                if (a.getUpdatedAt() == null) return 1;
-                if (b.getUpdatedAt() == null) return -1;
-                return b.getUpdatedAt().compareTo(a.getUpdatedAt());
-            })
-            .limit(5)
-            .collect(Collectors.toList());
-        
-        for (var task : recentTasks) {
+        List<Map<String, Object>> activities = new ArrayList<>();
+        for (ActivityEvent event : events) {
             Map<String, Object> activity = new HashMap<>();
-            activity.put("type", "task");
-            activity.put("title", "Task '" + task.getTitle() + "' updated");
-            activity.put("time", task.getUpdatedAt() != null ? task.getUpdatedAt().toString() : task.getCreatedAt().toString());
-            activity.put("projectName", task.getProject() != null ? task.getProject().getName() : "Unknown");
+            activity.put("id", event.getId());
+            activity.put("type", event.getType());
+            activity.put("title", event.getTitle());
+            activity.put("time", event.getCreatedAt().toString());
+            activity.put("projectName", event.getProjectName() != null ? event.getProjectName() : "-");
             activities.add(activity);
         }
         
         return activities;
     }
 
+    /**
+     * Organizations the user's dashboard is derived from, used to scope cache invalidation.
+     * Returns null for SUPER_ADMIN, whose dashboard is system-wide.
+     */
     @Transactional(readOnly = true)
+    public Set<Long> getCacheScope(User user) {
+        if (user.getRoles() != null && user.getRoles().contains("SUPER_ADMIN")) {
+            return null;
+        }
+        Set<Long> orgIds = new HashSet<>(organizationRepository.findIdsByOrgAdmin(user));
+        orgIds.addAll(organizationMemberRepository.findOrganizationIdsByUser(user));
+        orgIds.addAll(projectRepository.findOrganizationIdsByManagerOrCreator(user));
+        orgIds.addAll(projectMemberRepository.findOrganizationIdsByUser(user));
+        orgIds.addAll(taskRepository.findOrganizationIdsByAssignee(user));
+        return orgIds;
+    }
+
     public List<Map<String, Object>> getUpcomingDeadlines(User user) {
-        LocalDate now = LocalDate.now();
-        LocalDate weekLater = now.plusDays(7);
+        DashboardScope scope = resolveScope(user);
+        return singleFlight("deadlines:" + getDeadlinesKey(scope), () -> getUpcomingDeadlines(scope));
+    }
+
+    // Open tasks due between today and DEADLINE_DAYS from now (inclusive), soonest first
+    private List<Map<String, Object>> getUpcomingDeadlines(DashboardScope scope) {
+        OffsetDateTime from = startOfToday();
+        OffsetDateTime to = from.plusDays(DEADLINE_DAYS + 1);
+        PageRequest limit = PageRequest.of(0, DEADLINE_LIMIT);
         
         List<org.flow.flowbackend.model.Task> tasks;
         
-        // Get tasks based on role
-        // Get tasks based on role
-        if (user.getRoles().contains("SUPER_ADMIN")) {
-            // SUPER_ADMIN only sees tasks from the "Flow" organization
-            tasks = taskRepository.findAll().stream()
-                .filter(t -> t.getProject() != null 
-                    && t.getProject().getOrganization() != null 
-                    && "Flow".equalsIgnoreCase(t.getProject().getOrganization().getName()))
-                .collect(Collectors.toList());
-        } else if (user.getRoles().contains("ORG_ADMIN")) {
-             List<org.flow.flowbackend.model.Organization> orgs = organizationRepository.findByOrgAdmin(user);
-             List<org.flow.flowbackend.model.OrganizationMember> memberships = organizationMemberRepository.findByUser(user);
-             
-             Set<org.flow.flowbackend.model.Organization> uniqueOrgs = new HashSet<>(orgs);
-             memberships.forEach(m -> uniqueOrgs.add(m.getOrganization()));
-
-             tasks = uniqueOrgs.stream()
-                .flatMap(org -> projectRepository.findByOrganization(org).stream())
-                .flatMap(proj -> taskRepository.findByProject(proj).stream())
-                .collect(Collectors.toList());
-        } else if (user.getRoles().contains("PROJECT_MANAGER")) {
-            tasks = projectRepository.findByProjectManager(user).stream()
-                .flatMap(p -> taskRepository.findByProject(p).stream())
+        // Get tasks based on role; SUPER_ADMIN only sees tasks from the "Flow" organization
+        if ("SUPER_ADMIN".equals(scope.role) || "ORG_ADMIN".equals(scope.role)) {
+            tasks = scope.organizationIds.isEmpty()
+                ? List.of()
+                : taskRepository.findDueBetweenByOrganizationIds(scope.organizationIds, from, to, CLOSED_STATUSES, limit);
+        } else if ("PROJECT_MANAGER".equals(scope.role)) {
+            List<Long> projectIds = getManagedProjects(scope).stream()
+                .map(org.flow.flowbackend.model.Project::getId)
                 .collect(Collectors.toList());
+            tasks = projectIds.isEmpty()
+                ? List.of()
+                : taskRepository.findDueBetweenByProjectIds(projectIds, from, to, CLOSED_STATUSES, limit);
         } else {
-            tasks = taskRepository.findByAssignedTo(user);
+            tasks = taskRepository.findDueBetweenByAssignee(scope.user, from, to, CLOSED_STATUSES, limit);
         }
         
         return tasks.stream()
-            .filter(t -> t.getDueDate() != null)
-            .filter(t -> {
-                LocalDate dueLocalDate = t.getDueDate().toLocalDate();
-                return !dueLocalDate.isBefore(now) && !dueLocalDate.isAfter(weekLater);
-            })
-            .filter(t -> !isCompleted(t))
-            .sorted(Comparator.comparing(org.flow.flowbackend.model.Task::getDueDate))
-            .limit(5)
             .map(t -> {
                 Map<String, Object> deadline = new HashMap<>();
                 deadline.put("task", t.getTitle());
@@ -56,6 +56,7 @@ public class MeetingService {
             
             notificationService.createNotification(
                     project.getProjectManager(),
+                    project.getOrganization().getId(),
                     "MEETING_REQUEST",
                     "Meeting Request: " + request.getTitle(),
                     fullMessage,
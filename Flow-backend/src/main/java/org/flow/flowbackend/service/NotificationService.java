@@ -4,14 +4,11 @@ import org.flow.flowbackend.model.*;
 import org.flow.flowbackend.repository.NotificationEventRepository;
 import org.flow.flowbackend.repository.WebhookConfigRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -21,20 +18,28 @@ public class NotificationService {
 
     private final NotificationEventRepository notificationEventRepository;
     private final WebhookConfigRepository webhookConfigRepository;
-    private final HttpClient httpClient;
+    private final WebhookDeliveryService webhookDeliveryService;
+    private final WebhookRouter webhookRouter;
 
     @Autowired
     public NotificationService(NotificationEventRepository notificationEventRepository,
-                               WebhookConfigRepository webhookConfigRepository) {
+                               WebhookConfigRepository webhookConfigRepository,
+                               WebhookDeliveryService webhookDeliveryService,
+                               WebhookRouter webhookRouter) {
         this.notificationEventRepository = notificationEventRepository;
         this.webhookConfigRepository = webhookConfigRepository;
-        this.httpClient = HttpClient.newHttpClient();
+        this.webhookDeliveryService = webhookDeliveryService;
+        this.webhookRouter = webhookRouter;
     }
 
     // ===================== Notification Event Methods =====================
 
+    /**
+     * Records an in-app notification for the user; organizationId is the organization the event
+     * belongs to, whose webhooks receive it.
+     */
     @Transactional
-    public NotificationEvent createNotification(User user, String type, String title, String message,
+    public NotificationEvent createNotification(User user, Long organizationId, String type, String title, String message,
                                                   String relatedEntityType, Long relatedEntityId) {
         NotificationEvent event = NotificationEvent.builder()
                 .user(user)
@@ -49,8 +54,8 @@ public class NotificationService {
         
         NotificationEvent saved = notificationEventRepository.save(event);
         
-        // Trigger webhook asynchronously if configured
-        triggerWebhookAsync(user, type, title, message, relatedEntityType, relatedEntityId);
+        // Queue webhook deliveries in this transaction; they are sent after commit
+        webhookDeliveryService.enqueue(user, organizationId, type, title, message, relatedEntityType, relatedEntityId);
         
         return saved;
     }
@@ -90,81 +95,41 @@ public class NotificationService {
         return webhookConfigRepository.findByOrganization(organization);
     }
 
+    /**
+     * Saves the config. Every webhook request is signed, so a config without a secret key gets a
+     * generated one, readable through the config endpoint.
+     */
     @Transactional
     public WebhookConfig saveWebhookConfig(WebhookConfig config) {
+        if (config.getSecretKey() == null || config.getSecretKey().isBlank()) {
+            config.setSecretKey(WebhookSignatures.newSecret());
+        }
         config.setUpdatedAt(OffsetDateTime.now());
-        return webhookConfigRepository.save(config);
+        WebhookConfig saved = webhookConfigRepository.save(config);
+        webhookRouter.refreshAfterCommit();
+        return saved;
     }
 
-    // ===================== Webhook Trigger Methods =====================
-
-    @Async
-    public void triggerWebhookAsync(User user, String eventType, String title, String message,
-                                     String relatedEntityType, Long relatedEntityId) {
-        // Get user's organization(s) and check for webhook config
-        // For simplicity, we'll check if the user has any roles and find relevant webhooks
-        // In a real scenario, you'd want to get the organization context from the event
-        
-        List<WebhookConfig> activeWebhooks = webhookConfigRepository.findByIsActiveTrue();
-        
-        for (WebhookConfig config : activeWebhooks) {
-            // Check if this event type is subscribed
-            if (config.getEventTypes() != null && !config.getEventTypes().contains(eventType)) {
-                continue;
-            }
-            
-            // Check if user's role is targeted
-            if (config.getTargetRoles() != null && !config.getTargetRoles().isEmpty()) {
-                boolean roleMatch = user.getRoles() != null && 
-                    user.getRoles().stream().anyMatch(role -> config.getTargetRoles().contains(role));
-                if (!roleMatch) {
-                    continue;
-                }
-            }
-            
-            // Send webhook
-            sendWebhook(config.getWebhookUrl(), eventType, title, message, 
-                        user.getEmail(), relatedEntityType, relatedEntityId);
+    /**
+     * Gives webhooks saved before requests were always signed a secret key of their own.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void generateMissingWebhookSecrets() {
+        List<WebhookConfig> unsigned = webhookConfigRepository.findAll().stream()
+                .filter(config -> config.getSecretKey() == null || config.getSecretKey().isBlank())
+                .toList();
+        if (unsigned.isEmpty()) {
+            return;
         }
-    }
-
-    private void sendWebhook(String webhookUrl, String eventType, String title, String message,
-                             String userEmail, String relatedEntityType, Long relatedEntityId) {
-        try {
-            String jsonPayload = String.format(
-                "{\"eventType\":\"%s\",\"title\":\"%s\",\"message\":\"%s\",\"userEmail\":\"%s\",\"relatedEntityType\":\"%s\",\"relatedEntityId\":%d,\"timestamp\":\"%s\"}",
-                eventType, escapeJson(title), escapeJson(message), userEmail, 
-                relatedEntityType != null ? relatedEntityType : "null",
-                relatedEntityId != null ? relatedEntityId : 0,
-                OffsetDateTime.now().toString()
-            );
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(webhookUrl))
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(jsonPayload))
-                    .build();
-
-            httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                    .thenAccept(response -> {
-                        System.out.println("Webhook sent to " + webhookUrl + " - Status: " + response.statusCode());
-                    })
-                    .exceptionally(ex -> {
-                        System.err.println("Webhook failed for " + webhookUrl + ": " + ex.getMessage());
-                        return null;
-                    });
-        } catch (Exception e) {
-            System.err.println("Error sending webhook: " + e.getMessage());
+        OffsetDateTime now = OffsetDateTime.now();
+        for (WebhookConfig config : unsigned) {
+            config.setSecretKey(WebhookSignatures.newSecret());
+            config.setUpdatedAt(now);
         }
-    }
-
-    private String escapeJson(String text) {
-        if (text == null) return "";
-        return text.replace("\\", "\\\\")
-                   .replace("\"", "\\\"")
-                   .replace("\n", "\\n")
-                   .replace("\r", "\\r")
-                   .replace("\t", "\\t");
+        webhookConfigRepository.saveAll(unsigned);
+        webhookRouter.refreshAfterCommit();
+        System.out.println("Generated signing secrets for " + unsigned.size() + " webhook(s)");
     }
 
     // ===================== Event Type Constants =====================
@@ -24,6 +24,7 @@ public class OrganizationMemberService {
     private final org.flow.flowbackend.repository.ProjectRepository projectRepository;
     private final org.flow.flowbackend.repository.ProjectMemberRepository projectMemberRepository;
     private final SystemSettingsService systemSettingsService;
+    private final DashboardCache dashboardCache;
 
     @Autowired
     public OrganizationMemberService(
@@ -32,13 +33,15 @@ public class OrganizationMemberService {
             UserRepository userRepository,
             org.flow.flowbackend.repository.ProjectRepository projectRepository,
             org.flow.flowbackend.repository.ProjectMemberRepository projectMemberRepository,
-            SystemSettingsService systemSettingsService) {
+            SystemSettingsService systemSettingsService,
+            DashboardCache dashboardCache) {
         this.organizationMemberRepository = organizationMemberRepository;
         this.organizationRepository = organizationRepository;
         this.userRepository = userRepository;
         this.projectRepository = projectRepository;
         this.projectMemberRepository = projectMemberRepository;
         this.systemSettingsService = systemSettingsService;
+        this.dashboardCache = dashboardCache;
     }
 
     /**
@@ -207,6 +210,9 @@ public class OrganizationMemberService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        dashboardCache.invalidateOrganization(organizationId);
+        dashboardCache.invalidateUser(userId);
+
         // Check if already exists in organization_members table
         if (organizationMemberRepository.existsByOrganizationAndUser(organization, user)) {
             // Update existing record
@@ -241,6 +247,9 @@ public class OrganizationMemberService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        dashboardCache.invalidateOrganization(organizationId);
+        dashboardCache.invalidateUser(userId);
+
         // If membership exists, keep the record for FK integrity/audit, but mark role as DELETED
         organizationMemberRepository.findByOrganizationAndUser(organization, user)
                 .ifPresent(member -> {
@@ -22,12 +22,17 @@ public class OrganizationService {
     private final OrganizationRepository organizationRepository;
     private final UserRepository userRepository;
     private final OrganizationMemberService organizationMemberService;
+    private final ActivityService activityService;
+    private final DashboardCache dashboardCache;
 
     @Autowired
-    public OrganizationService(OrganizationRepository organizationRepository, UserRepository userRepository, OrganizationMemberService organizationMemberService) {
+    public OrganizationService(OrganizationRepository organizationRepository, UserRepository userRepository, OrganizationMemberService organizationMemberService,
+                               ActivityService activityService, DashboardCache dashboardCache) {
         this.organizationRepository = organizationRepository;
         this.userRepository = userRepository;
         this.organizationMemberService = organizationMemberService;
+        this.activityService = activityService;
+        this.dashboardCache = dashboardCache;
     }
 
     @Transactional
@@ -50,6 +55,9 @@ public class OrganizationService {
                 .build();
 
         Organization saved = organizationRepository.save(organization);
+        activityService.recordOrganizationActivity(saved, ActivityService.ACTION_CREATED, currentUser);
+        dashboardCache.invalidateOrganization(saved.getId());
+        dashboardCache.invalidateUser(orgAdmin.getId());
         return convertToDTO(saved);
     }
 
@@ -127,6 +135,9 @@ public class OrganizationService {
         }
         
         if (request.getOrgAdminId() != null) {
+            if (organization.getOrgAdmin() != null) {
+                dashboardCache.invalidateUser(organization.getOrgAdmin().getId());
+            }
             User orgAdmin = userRepository.findById(request.getOrgAdminId())
                     .orElseThrow(() -> new RuntimeException("Organization admin not found"));
             
@@ -135,6 +146,7 @@ public class OrganizationService {
             }
             
             organization.setOrgAdmin(orgAdmin);
+            dashboardCache.invalidateUser(orgAdmin.getId());
         }
         
         if (request.getIsActive() != null) {
@@ -143,15 +155,18 @@ public class OrganizationService {
 
         organization.setUpdatedAt(OffsetDateTime.now());
         Organization updated = organizationRepository.save(organization);
+        activityService.recordOrganizationActivity(updated, ActivityService.ACTION_UPDATED, null);
+        dashboardCache.invalidateOrganization(updated.getId());
         return convertToDTO(updated);
     }
 
     @Transactional
     public void deleteOrganization(Long id) {
-        if (!organizationRepository.existsById(id)) {
-            throw new RuntimeException("Organization not found with id: " + id);
-        }
-        organizationRepository.deleteById(id);
+        Organization organization = organizationRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Organization not found with id: " + id));
+        activityService.recordOrganizationActivity(organization, ActivityService.ACTION_DELETED, null);
+        dashboardCache.invalidateOrganization(organization.getId());
+        organizationRepository.delete(organization);
     }
 
     public List<org.flow.flowbackend.payload.response.OrganizationMemberDTO> getOrganizationMemberDTOs(Long organizationId) {
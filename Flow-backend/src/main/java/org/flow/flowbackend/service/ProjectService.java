@@ -5,6 +5,7 @@ import org.flow.flowbackend.model.Project;
 import org.flow.flowbackend.model.User;
 import org.flow.flowbackend.repository.ProjectRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,6 +22,10 @@ public class ProjectService {
     private final EmailService emailService;
     private final NotificationService notificationService;
     private final SystemSettingsService systemSettingsService;
+    private final ProjectTaskStatsService projectTaskStatsService;
+    private final ActivityService activityService;
+    private final DashboardCache dashboardCache;
+    private final TaskChangeService taskChangeService;
 
     @Autowired
     public ProjectService(ProjectRepository projectRepository, 
@@ -29,7 +34,11 @@ public class ProjectService {
                           org.flow.flowbackend.repository.UserRepository userRepository,
                           EmailService emailService,
                           NotificationService notificationService,
-                          SystemSettingsService systemSettingsService) {
+                          SystemSettingsService systemSettingsService,
+                          ProjectTaskStatsService projectTaskStatsService,
+                          ActivityService activityService,
+                          DashboardCache dashboardCache,
+                          TaskChangeService taskChangeService) {
         this.projectRepository = projectRepository;
         this.organizationService = organizationService;
         this.projectMemberRepository = projectMemberRepository;
@@ -37,6 +46,10 @@ public class ProjectService {
         this.emailService = emailService;
         this.notificationService = notificationService;
         this.systemSettingsService = systemSettingsService;
+        this.projectTaskStatsService = projectTaskStatsService;
+        this.activityService = activityService;
+        this.dashboardCache = dashboardCache;
+        this.taskChangeService = taskChangeService;
     }
 
     @Transactional
@@ -71,6 +84,9 @@ public class ProjectService {
         }
 
         Project savedProject = projectRepository.save(project);
+        projectTaskStatsService.initialize(savedProject);
+        activityService.recordProjectActivity(savedProject, ActivityService.ACTION_CREATED, currentUser);
+        invalidateDashboards(savedProject);
 
         // Add Members if provided
         if (request.getMemberIds() != null && !request.getMemberIds().isEmpty()) {
@@ -83,6 +99,7 @@ public class ProjectService {
                         .joinedAt(java.time.OffsetDateTime.now())
                         .build();
                 projectMemberRepository.save(projectMember);
+                dashboardCache.invalidateUser(member.getId());
                 
                 // Send project assignment email
                 emailService.sendProjectAssignmentEmail(member, savedProject, "TEAM_MEMBER");
@@ -138,10 +155,18 @@ public class ProjectService {
                 .collect(java.util.stream.Collectors.toList());
     }
 
+    /**
+     * The project's version, which is its ETag, without loading the project.
+     */
+    public Optional<Long> getProjectVersion(Long id) {
+        return projectRepository.findVersionById(id);
+    }
+
     @Transactional
-    public Project updateProject(Long id, Project projectDetails) {
+    public Project updateProject(Long id, Project projectDetails, Long expectedVersion) {
         Project project = projectRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Project not found"));
+        checkVersion(project, expectedVersion);
 
         project.setName(projectDetails.getName());
         project.setDescription(projectDetails.getDescription());
@@ -151,16 +176,22 @@ public class ProjectService {
         project.setStartDate(projectDetails.getStartDate());
         project.setEndDate(projectDetails.getEndDate());
 
-        return projectRepository.save(project);
+        Project savedProject = projectRepository.saveAndFlush(project);
+        activityService.recordProjectActivity(savedProject, ActivityService.ACTION_UPDATED, null);
+        invalidateDashboards(savedProject);
+        return savedProject;
     }
 
     @Transactional
-    public Project updateProjectStatus(Long id, boolean isActive) {
+    public Project updateProjectStatus(Long id, boolean isActive, Long expectedVersion) {
         Project project = projectRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Project not found"));
+        checkVersion(project, expectedVersion);
 
         project.setActive(isActive);
-        Project savedProject = projectRepository.save(project);
+        Project savedProject = projectRepository.saveAndFlush(project);
+        activityService.recordProjectActivity(savedProject, ActivityService.ACTION_UPDATED, null);
+        invalidateDashboards(savedProject);
 
         // Notify members
         List<User> members = getProjectMembers(id);
@@ -171,6 +202,7 @@ public class ProjectService {
             // In-app notification
             notificationService.createNotification(
                 member,
+                project.getOrganization().getId(),
                 "PROJECT_STATUS_CHANGE",
                 "Project Status Updated",
                 "Project '" + project.getName() + "' is now " + statusMsg,
@@ -182,6 +214,12 @@ public class ProjectService {
         return savedProject;
     }
 
+    private void checkVersion(Project project, Long expectedVersion) {
+        if (expectedVersion != null && expectedVersion != project.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(Project.class, project.getId());
+        }
+    }
+
     @Transactional
     public void deleteProject(Long id) {
         Project project = projectRepository.findById(id)
@@ -191,12 +229,28 @@ public class ProjectService {
         List<User> members = getProjectMembers(id);
         String projectName = project.getName();
         
+        projectTaskStatsService.remove(id);
+        taskChangeService.recordProjectDeleted(id);
+        activityService.recordProjectActivity(project, ActivityService.ACTION_DELETED, null);
+        invalidateDashboards(project);
         projectRepository.delete(project);
         
         for (User member : members) {
             emailService.sendProjectDeletionEmail(member.getEmail(), member.getFirstName(), projectName);
         }
     }
+
+    // Manager and creator dashboards are scoped by their projects' organizations
+    private void invalidateDashboards(Project project) {
+        dashboardCache.invalidateOrganization(project.getOrganization().getId());
+        if (project.getProjectManager() != null) {
+            dashboardCache.invalidateUser(project.getProjectManager().getId());
+        }
+        if (project.getCreatedBy() != null) {
+            dashboardCache.invalidateUser(project.getCreatedBy().getId());
+        }
+    }
+
     @Transactional(readOnly = true)
     public List<User> getProjectMembers(Long projectId) {
         Project project = projectRepository.findById(projectId)
@@ -249,6 +303,8 @@ public class ProjectService {
                 .build();
         
         projectMemberRepository.save(projectMember);
+        dashboardCache.invalidateOrganization(project.getOrganization().getId());
+        dashboardCache.invalidateUser(user.getId());
         
         // Send email
         emailService.sendProjectAssignmentEmail(user, project, role);
@@ -256,6 +312,7 @@ public class ProjectService {
         // Notify
         notificationService.createNotification(
             user,
+            project.getOrganization().getId(),
             "PROJECT_ASSIGNMENT",
             "Added to Project",
             "You have been added to project '" + project.getName() + "' as " + role,
@@ -287,6 +344,7 @@ public class ProjectService {
         // Send In-App Notification
         notificationService.createNotification(
             pm,
+            project.getOrganization().getId(),
             "CLIENT_FEEDBACK",
             title,
             content,
@@ -0,0 +1,74 @@
+package org.flow.flowbackend.service;
+
+import org.flow.flowbackend.model.ProjectTaskStats;
+import org.flow.flowbackend.repository.ProjectRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Nightly snapshot of every project's open/overdue/hours into project_task_daily for the day
+ * that just ended. Counters are computed from the tasks table shortly after midnight.
+ */
+@Component
+public class ProjectTaskHistoryRollup {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final ProjectTaskHistoryService projectTaskHistoryService;
+    private final ProjectTaskStatsService projectTaskStatsService;
+    private final ProjectRepository projectRepository;
+
+    @Autowired
+    public ProjectTaskHistoryRollup(ProjectTaskHistoryService projectTaskHistoryService,
+                                    ProjectTaskStatsService projectTaskStatsService,
+                                    ProjectRepository projectRepository) {
+        this.projectTaskHistoryService = projectTaskHistoryService;
+        this.projectTaskStatsService = projectTaskStatsService;
+        this.projectRepository = projectRepository;
+    }
+
+    // Catch up if the application was down when yesterday's snapshot was due
+    @EventListener(ApplicationReadyEvent.class)
+    public void snapshotOnStartup() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        try {
+            if (!projectTaskHistoryService.hasSnapshot(yesterday)) {
+                snapshot(yesterday);
+            }
+        } catch (Exception e) {
+            System.err.println("Project task history snapshot failed: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${app.stats.history-cron:0 5 0 * * *}")
+    public void snapshotYesterday() {
+        snapshot(LocalDate.now().minusDays(1));
+    }
+
+    public void snapshot(LocalDate day) {
+        try {
+            // Tasks due before the end of the day count as overdue on that day
+            OffsetDateTime endOfDay = day.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toOffsetDateTime();
+            List<Long> projectIds = projectRepository.findAllIds();
+            for (int i = 0; i < projectIds.size(); i += BATCH_SIZE) {
+                List<Long> batch = projectIds.subList(i, Math.min(i + BATCH_SIZE, projectIds.size()));
+                Map<Long, ProjectTaskStats> counters = projectTaskStatsService.computeExpected(batch, endOfDay);
+                projectTaskHistoryService.snapshot(day, batch, counters, OffsetDateTime.now());
+            }
+            int removed = projectTaskHistoryService.deleteOrphans();
+            System.out.println("Project task history snapshot for " + day + ": " + projectIds.size() + " projects, "
+                    + removed + " orphaned rows removed");
+        } catch (Exception e) {
+            System.err.println("Project task history snapshot failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.flow.flowbackend.service;
+
+import org.flow.flowbackend.model.ProjectTaskDaily;
+import org.flow.flowbackend.model.ProjectTaskStats;
+import org.flow.flowbackend.repository.ProjectTaskDailyRepository;
+import org.flow.flowbackend.repository.ProjectTaskStatsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Per-project, per-day task history (project_task_daily) for burndown and velocity charts.
+ */
+@Service
+public class ProjectTaskHistoryService {
+
+    private final ProjectTaskDailyRepository projectTaskDailyRepository;
+    private final ProjectTaskStatsRepository projectTaskStatsRepository;
+
+    @Autowired
+    public ProjectTaskHistoryService(ProjectTaskDailyRepository projectTaskDailyRepository,
+                                     ProjectTaskStatsRepository projectTaskStatsRepository) {
+        this.projectTaskDailyRepository = projectTaskDailyRepository;
+        this.projectTaskStatsRepository = projectTaskStatsRepository;
+    }
+
+    // ===================== Incremental Maintenance =====================
+
+    /**
+     * Adds created/completed tasks to today's row. Called after the project's project_task_stats
+     * row was updated in the same transaction, so its row lock serializes concurrent inserts here.
+     */
+    @Transactional
+    public void recordActivity(Long projectId, long created, long completed) {
+        if (created == 0 && completed == 0) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        if (projectTaskDailyRepository.addActivity(projectId, today, created, completed) == 0) {
+            projectTaskDailyRepository.save(ProjectTaskDaily.builder()
+                    .projectId(projectId)
+                    .day(today)
+                    .createdTasks(created)
+                    .completedTasks(completed)
+                    .build());
+        }
+    }
+
+    @Transactional
+    public void remove(Long projectId) {
+        projectTaskDailyRepository.deleteByProject(projectId);
+    }
+
+    // ===================== Daily Snapshot =====================
+
+    /**
+     * Writes the open/overdue/hours snapshot of the given projects for one day.
+     * Projects missing from {@code counters} have no tasks.
+     */
+    @Transactional
+    public void snapshot(LocalDate day, Collection<Long> projectIds, Map<Long, ProjectTaskStats> counters, OffsetDateTime takenAt) {
+        Map<Long, ProjectTaskDaily> existing = projectTaskDailyRepository.findByDayAndProjectIdIn(day, projectIds).stream()
+                .collect(Collectors.toMap(ProjectTaskDaily::getProjectId, Function.identity()));
+
+        List<ProjectTaskDaily> rows = new ArrayList<>();
+        for (Long projectId : projectIds) {
+            ProjectTaskDaily row = existing.getOrDefault(projectId,
+                    ProjectTaskDaily.builder().projectId(projectId).day(day).build());
+            ProjectTaskStats stats = counters.get(projectId);
+            if (stats != null) {
+                row.setOpenTasks(stats.getTotal() - stats.getDone());
+                row.setOverdueTasks(stats.getOverdue());
+                row.setEstimatedHours(stats.getEstimatedHours());
+                row.setActualHours(stats.getActualHours());
+            }
+            row.setSnapshotAt(takenAt);
+            rows.add(row);
+        }
+        projectTaskDailyRepository.saveAll(rows);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean hasSnapshot(LocalDate day) {
+        return projectTaskDailyRepository.existsByDayAndSnapshotAtIsNotNull(day);
+    }
+
+    @Transactional
+    public int deleteOrphans() {
+        return projectTaskDailyRepository.deleteOrphans();
+    }
+
+    // ===================== Reads =====================
+
+    /**
+     * Daily history of a project, oldest first. Today has no snapshot yet, so its open/overdue/hours
+     * come from the live project_task_stats row.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getHistory(Long projectId, LocalDate from, LocalDate to) {
+        List<ProjectTaskDaily> rows = projectTaskDailyRepository.findRange(projectId, from, to);
+
+        LocalDate today = LocalDate.now();
+        ProjectTaskStats live = null;
+        if (!today.isBefore(from) && !today.isAfter(to)) {
+            live = projectTaskStatsRepository.findById(projectId).orElse(null);
+        }
+
+        List<Map<String, Object>> history = new ArrayList<>();
+        boolean hasToday = false;
+        for (ProjectTaskDaily row : rows) {
+            boolean isLiveToday = live != null && row.getDay().equals(today) && row.getSnapshotAt() == null;
+            history.add(toEntry(row.getDay(), row.getCreatedTasks(), row.getCompletedTasks(), isLiveToday ? null : row, isLiveToday ? live : null));
+            hasToday |= row.getDay().equals(today);
+        }
+        if (live != null && !hasToday) {
+            history.add(toEntry(today, 0, 0, null, live));
+        }
+        return history;
+    }
+
+    private Map<String, Object> toEntry(LocalDate day, long created, long completed, ProjectTaskDaily snapshot, ProjectTaskStats live) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("date", day.toString());
+        entry.put("created", created);
+        entry.put("completed", completed);
+        if (live != null) {
+            entry.put("open", live.getTotal() - live.getDone());
+            entry.put("overdue", live.getOverdue());
+            entry.put("estimatedHours", live.getEstimatedHours());
+            entry.put("actualHours", live.getActualHours());
+        } else {
+            entry.put("open", snapshot.getOpenTasks());
+            entry.put("overdue", snapshot.getOverdueTasks());
+            entry.put("estimatedHours", snapshot.getEstimatedHours());
+            entry.put("actualHours", snapshot.getActualHours());
+        }
+        return entry;
+    }
+}
@@ -0,0 +1,79 @@
+package org.flow.flowbackend.service;
+
+import org.flow.flowbackend.model.ProjectTaskStats;
+import org.flow.flowbackend.repository.ProjectRepository;
+import org.flow.flowbackend.repository.ProjectTaskStatsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Periodically compares project_task_stats with the tasks table and rebuilds rows that drifted
+ * (missed writes, cascaded deletes, tasks that became overdue since their last write).
+ */
+@Component
+public class ProjectTaskStatsReconciler {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final ProjectTaskStatsService projectTaskStatsService;
+    private final ProjectTaskStatsRepository projectTaskStatsRepository;
+    private final ProjectRepository projectRepository;
+
+    @Autowired
+    public ProjectTaskStatsReconciler(ProjectTaskStatsService projectTaskStatsService,
+                                      ProjectTaskStatsRepository projectTaskStatsRepository,
+                                      ProjectRepository projectRepository) {
+        this.projectTaskStatsService = projectTaskStatsService;
+        this.projectTaskStatsRepository = projectTaskStatsRepository;
+        this.projectRepository = projectRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    @Scheduled(cron = "${app.stats.reconcile-cron:0 0 * * * *}")
+    public void reconcile() {
+        try {
+            int rebuilt = 0;
+            List<Long> projectIds = projectRepository.findAllIds();
+            for (int i = 0; i < projectIds.size(); i += BATCH_SIZE) {
+                rebuilt += reconcileBatch(projectIds.subList(i, Math.min(i + BATCH_SIZE, projectIds.size())));
+            }
+            int removed = projectTaskStatsService.deleteOrphans();
+            if (rebuilt > 0 || removed > 0) {
+                System.out.println("Project task stats reconciled: " + rebuilt + " rebuilt, " + removed + " orphaned rows removed");
+            }
+        } catch (Exception e) {
+            System.err.println("Project task stats reconciliation failed: " + e.getMessage());
+        }
+    }
+
+    private int reconcileBatch(List<Long> projectIds) {
+        OffsetDateTime now = OffsetDateTime.now();
+        Map<Long, ProjectTaskStats> expected = projectTaskStatsService.computeExpected(projectIds, now);
+        Map<Long, ProjectTaskStats> stored = projectTaskStatsRepository.findAllById(projectIds).stream()
+                .collect(Collectors.toMap(ProjectTaskStats::getProjectId, Function.identity()));
+
+        int rebuilt = 0;
+        for (Long projectId : projectIds) {
+            ProjectTaskStats actual = stored.get(projectId);
+            ProjectTaskStats wanted = expected.getOrDefault(projectId, ProjectTaskStats.builder().projectId(projectId).build());
+            if (actual == null || !ProjectTaskStatsService.countersEqual(actual, wanted)) {
+                projectTaskStatsService.rebuild(projectId);
+                rebuilt++;
+            }
+        }
+        return rebuilt;
+    }
+}
@@ -0,0 +1,333 @@
+package org.flow.flowbackend.service;
+
+import org.flow.flowbackend.model.Project;
+import org.flow.flowbackend.model.ProjectTaskStats;
+import org.flow.flowbackend.model.Task;
+import org.flow.flowbackend.model.TaskStatus;
+import org.flow.flowbackend.repository.ProjectRepository;
+import org.flow.flowbackend.repository.ProjectTaskStatsRepository;
+import org.flow.flowbackend.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the project_task_stats rollup. Task writes apply deltas with a single
+ * UPDATE in the caller's transaction and count created/completed tasks into today's
+ * project_task_daily row; rebuild() recomputes a stats row from the tasks table.
+ */
+@Service
+public class ProjectTaskStatsService {
+
+    private final ProjectTaskStatsRepository projectTaskStatsRepository;
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final ProjectTaskHistoryService projectTaskHistoryService;
+
+    @Autowired
+    public ProjectTaskStatsService(ProjectTaskStatsRepository projectTaskStatsRepository,
+                                   TaskRepository taskRepository,
+                                   ProjectRepository projectRepository,
+                                   ProjectTaskHistoryService projectTaskHistoryService) {
+        this.projectTaskStatsRepository = projectTaskStatsRepository;
+        this.taskRepository = taskRepository;
+        this.projectRepository = projectRepository;
+        this.projectTaskHistoryService = projectTaskHistoryService;
+    }
+
+    // ===================== Incremental Maintenance =====================
+
+    @Transactional
+    public void initialize(Project project) {
+        if (projectTaskStatsRepository.existsById(project.getId())) {
+            return;
+        }
+        projectTaskStatsRepository.save(ProjectTaskStats.builder()
+                .projectId(project.getId())
+                .organizationId(project.getOrganization().getId())
+                .updatedAt(OffsetDateTime.now())
+                .build());
+    }
+
+    @Transactional
+    public void remove(Long projectId) {
+        if (projectTaskStatsRepository.existsById(projectId)) {
+            projectTaskStatsRepository.deleteById(projectId);
+        }
+        projectTaskHistoryService.remove(projectId);
+    }
+
+    /**
+     * Captures what a task currently contributes to its project's counters.
+     * Take it before mutating the task and pass it to {@link #recordChanged}.
+     */
+    public Contribution contributionOf(Task task) {
+        return Contribution.of(task, OffsetDateTime.now());
+    }
+
+    @Transactional
+    public void recordCreated(Task task) {
+        Contribution contribution = contributionOf(task);
+        apply(task.getProject().getId(), contribution);
+        projectTaskHistoryService.recordActivity(task.getProject().getId(), 1, contribution.done);
+    }
+
+    /**
+     * Bulk variant of {@link #recordCreated} for tasks that all belong to one project.
+     */
+    @Transactional
+    public void recordCreatedAll(Long projectId, List<Task> tasks) {
+        OffsetDateTime now = OffsetDateTime.now();
+        Contribution total = Contribution.NONE;
+        for (Task task : tasks) {
+            total = total.plus(Contribution.of(task, now));
+        }
+        apply(projectId, total);
+        projectTaskHistoryService.recordActivity(projectId, tasks.size(), total.done);
+    }
+
+    @Transactional
+    public void recordChanged(Contribution before, Task after) {
+        Contribution delta = contributionOf(after).minus(before);
+        if (!delta.isZero()) {
+            apply(after.getProject().getId(), delta);
+            // Net completions: reopening a task completed today takes it back out
+            projectTaskHistoryService.recordActivity(after.getProject().getId(), 0, delta.done);
+        }
+    }
+
+    @Transactional
+    public void recordDeleted(Task task) {
+        apply(task.getProject().getId(), Contribution.NONE.minus(contributionOf(task)));
+    }
+
+    /**
+     * Bulk variant of {@link #recordChanged}: before.get(i) is the contribution of after.get(i)
+     * prior to the write. Deltas are summed so each project gets a single UPDATE.
+     */
+    @Transactional
+    public void recordChangedAll(List<Contribution> before, List<Task> after) {
+        Map<Long, Contribution> deltas = new LinkedHashMap<>();
+        for (int i = 0; i < after.size(); i++) {
+            Contribution delta = contributionOf(after.get(i)).minus(before.get(i));
+            deltas.merge(after.get(i).getProject().getId(), delta, Contribution::plus);
+        }
+        deltas.forEach((projectId, delta) -> {
+            if (!delta.isZero()) {
+                apply(projectId, delta);
+                projectTaskHistoryService.recordActivity(projectId, 0, delta.done);
+            }
+        });
+    }
+
+    @Transactional
+    public void recordDeletedAll(List<Task> tasks) {
+        Map<Long, Contribution> deltas = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            deltas.merge(task.getProject().getId(), Contribution.NONE.minus(contributionOf(task)), Contribution::plus);
+        }
+        deltas.forEach(this::apply);
+    }
+
+    /**
+     * Total tasks of a project, read from the rollup row (rebuilt on the fly if missing).
+     */
+    @Transactional
+    public long getTaskCount(Long projectId) {
+        return projectTaskStatsRepository.findById(projectId)
+                .orElseGet(() -> rebuild(projectId))
+                .getTotal();
+    }
+
+    private void apply(Long projectId, Contribution delta) {
+        int updated = projectTaskStatsRepository.applyDelta(projectId,
+                delta.total, delta.todo, delta.inProgress, delta.done, delta.overdue,
+                delta.estimatedHours, delta.actualHours, OffsetDateTime.now());
+        if (updated == 0) {
+            // No row yet (project predates the rollup): build it from the tasks table,
+            // which already reflects this write.
+            rebuild(projectId);
+        }
+    }
+
+    // ===================== Reconciliation =====================
+
+    /**
+     * Recomputes one project's counters from the tasks table. The stats row is locked first so
+     * concurrent deltas queue behind the rebuild instead of being overwritten by it.
+     */
+    @Transactional
+    public ProjectTaskStats rebuild(Long projectId) {
+        ProjectTaskStats stats = projectTaskStatsRepository.findForUpdate(projectId).orElse(null);
+        if (stats == null) {
+            Project project = projectRepository.findById(projectId)
+                    .orElseThrow(() -> new RuntimeException("Project not found"));
+            stats = ProjectTaskStats.builder()
+                    .projectId(projectId)
+                    .organizationId(project.getOrganization().getId())
+                    .build();
+        }
+
+        OffsetDateTime now = OffsetDateTime.now();
+        ProjectTaskStats expected = computeExpected(List.of(projectId), now)
+                .getOrDefault(projectId, ProjectTaskStats.builder().projectId(projectId).build());
+
+        copyCounters(expected, stats);
+        stats.setUpdatedAt(now);
+        stats.setReconciledAt(now);
+        return projectTaskStatsRepository.save(stats);
+    }
+
+    /**
+     * Computes counters for the given projects with three grouped queries. Projects without
+     * tasks are absent from the result.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, ProjectTaskStats> computeExpected(Collection<Long> projectIds, OffsetDateTime now) {
+        Map<Long, ProjectTaskStats> result = new HashMap<>();
+        if (projectIds.isEmpty()) {
+            return result;
+        }
+
+        for (TaskRepository.ProjectStatusCount row : taskRepository.countByProjectIdsGroupedByStatus(projectIds)) {
+            ProjectTaskStats stats = result.computeIfAbsent(row.getProjectId(),
+                    id -> ProjectTaskStats.builder().projectId(id).build());
+            long count = row.getTaskCount() != null ? row.getTaskCount() : 0;
+            stats.setTotal(stats.getTotal() + count);
+            switch (bucketOf(row.getStatus())) {
+                case TODO -> stats.setTodo(stats.getTodo() + count);
+                case IN_PROGRESS -> stats.setInProgress(stats.getInProgress() + count);
+                case DONE -> stats.setDone(stats.getDone() + count);
+                default -> { }
+            }
+        }
+
+        for (TaskRepository.ProjectStatusCount row : taskRepository.countDueBeforeByProjectIdsGroupedByStatus(projectIds, now)) {
+            ProjectTaskStats stats = result.get(row.getProjectId());
+            if (stats != null && bucketOf(row.getStatus()) != Bucket.DONE) {
+                stats.setOverdue(stats.getOverdue() + (row.getTaskCount() != null ? row.getTaskCount() : 0));
+            }
+        }
+
+        for (TaskRepository.ProjectHoursSum row : taskRepository.sumHoursByProjectIds(projectIds)) {
+            ProjectTaskStats stats = result.get(row.getProjectId());
+            if (stats != null) {
+                stats.setEstimatedHours(row.getEstimatedHours() != null ? row.getEstimatedHours() : 0);
+                stats.setActualHours(row.getActualHours() != null ? row.getActualHours() : 0);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Removes rows whose project no longer exists (e.g. deleted through an organization cascade).
+     */
+    @Transactional
+    public int deleteOrphans() {
+        return projectTaskStatsRepository.deleteOrphans();
+    }
+
+    public static boolean countersEqual(ProjectTaskStats a, ProjectTaskStats b) {
+        return a.getTotal() == b.getTotal()
+                && a.getTodo() == b.getTodo()
+                && a.getInProgress() == b.getInProgress()
+                && a.getDone() == b.getDone()
+                && a.getOverdue() == b.getOverdue()
+                && Math.abs(a.getEstimatedHours() - b.getEstimatedHours()) < 0.001
+                && Math.abs(a.getActualHours() - b.getActualHours()) < 0.001;
+    }
+
+    private void copyCounters(ProjectTaskStats from, ProjectTaskStats to) {
+        to.setTotal(from.getTotal());
+        to.setTodo(from.getTodo());
+        to.setInProgress(from.getInProgress());
+        to.setDone(from.getDone());
+        to.setOverdue(from.getOverdue());
+        to.setEstimatedHours(from.getEstimatedHours());
+        to.setActualHours(from.getActualHours());
+    }
+
+    // ===================== Status Buckets =====================
+
+    enum Bucket { TODO, IN_PROGRESS, DONE, OTHER }
+
+    // Same status semantics as the dashboard: review and blocked count as in progress
+    static Bucket bucketOf(TaskStatus status) {
+        if (status == null) return Bucket.OTHER;
+        switch (status) {
+            case TODO:
+                return Bucket.TODO;
+            case IN_PROGRESS:
+            case REVIEW:
+            case BLOCKED:
+                return Bucket.IN_PROGRESS;
+            case DONE:
+                return Bucket.DONE;
+            default:
+                return Bucket.OTHER;
+        }
+    }
+
+    /**
+     * What a single task adds to its project's counters (or, as a difference, what a write changes).
+     */
+    public static final class Contribution {
+        static final Contribution NONE = new Contribution(0, 0, 0, 0, 0, 0, 0);
+
+        private final long total;
+        private final long todo;
+        private final long inProgress;
+        private final long done;
+        private final long overdue;
+        private final double estimatedHours;
+        private final double actualHours;
+
+        private Contribution(long total, long todo, long inProgress, long done, long overdue,
+                             double estimatedHours, double actualHours) {
+            this.total = total;
+            this.todo = todo;
+            this.inProgress = inProgress;
+            this.done = done;
+            this.overdue = overdue;
+            this.estimatedHours = estimatedHours;
+            this.actualHours = actualHours;
+        }
+
+        static Contribution of(Task task, OffsetDateTime now) {
+            Bucket bucket = bucketOf(task.getStatus());
+            boolean overdue = bucket != Bucket.DONE && task.getDueDate() != null && task.getDueDate().isBefore(now);
+            return new Contribution(1,
+                    bucket == Bucket.TODO ? 1 : 0,
+                    bucket == Bucket.IN_PROGRESS ? 1 : 0,
+                    bucket == Bucket.DONE ? 1 : 0,
+                    overdue ? 1 : 0,
+                    task.getEstimatedHours() != null ? task.getEstimatedHours() : 0,
+                    task.getActualHours() != null ? task.getActualHours() : 0);
+        }
+
+        Contribution plus(Contribution other) {
+            return new Contribution(total + other.total, todo + other.todo, inProgress + other.inProgress,
+                    done + other.done, overdue + other.overdue,
+                    estimatedHours + other.estimatedHours, actualHours + other.actualHours);
+        }
+
+        Contribution minus(Contribution other) {
+            return new Contribution(total - other.total, todo - other.todo, inProgress - other.inProgress,
+                    done - other.done, overdue - other.overdue,
+                    estimatedHours - other.estimatedHours, actualHours - other.actualHours);
+        }
+
+        boolean isZero() {
+            return total == 0 && todo == 0 && inProgress == 0 && done == 0 && overdue == 0
+                    && estimatedHours == 0 && actualHours == 0;
+        }
+    }
+}
@@ -31,7 +31,7 @@ public class SystemSettingsService {
         limits.put("maxUsersPerOrganization", getConfigInt(LIMIT_MAX_USERS_ORG, 50)); // Default 50
         limits.put("maxProjectsPerOrganization", getConfigInt(LIMIT_MAX_PROJECTS_ORG, 10)); // Default 10
         limits.put("maxMembersPerProject", getConfigInt(LIMIT_MAX_MEMBERS_PROJECT, 20)); // Default 20
-        limits.put("maxTasksPerProject", getConfigInt(LIMIT_MAX_TASKS_PROJECT, 500)); // Default 500
+        limits.put("maxTasksPerProject", getConfigInt(LIMIT_MAX_TASKS_PROJECT, 5000)); // Default 5000
         return limits;
     }
 
@@ -40,7 +40,7 @@ public class SystemSettingsService {
         saveConfigInt(LIMIT_MAX_USERS_ORG, newLimits.getOrDefault("maxUsersPerOrganization", 50), "Maximum users per organization");
         saveConfigInt(LIMIT_MAX_PROJECTS_ORG, newLimits.getOrDefault("maxProjectsPerOrganization", 10), "Maximum projects per organization");
         saveConfigInt(LIMIT_MAX_MEMBERS_PROJECT, newLimits.getOrDefault("maxMembersPerProject", 20), "Maximum members per project");
-        saveConfigInt(LIMIT_MAX_TASKS_PROJECT, newLimits.getOrDefault("maxTasksPerProject", 500), "Maximum tasks per project");
+        saveConfigInt(LIMIT_MAX_TASKS_PROJECT, newLimits.getOrDefault("maxTasksPerProject", 5000), "Maximum tasks per project");
     }
 
     private int getConfigInt(String key, int defaultValue) {
@@ -78,6 +78,6 @@ public class SystemSettingsService {
     }
 
     public int getMaxTasksPerProject() {
-        return getConfigInt(LIMIT_MAX_TASKS_PROJECT, 500);
+        return getConfigInt(LIMIT_MAX_TASKS_PROJECT, 5000);
     }
 }
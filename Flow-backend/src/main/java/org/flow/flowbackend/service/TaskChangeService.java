@@ -0,0 +1,232 @@
+package org.flow.flowbackend.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.flow.flowbackend.model.Task;
+import org.flow.flowbackend.model.TaskChangeCounter;
+import org.flow.flowbackend.model.TaskTombstone;
+import org.flow.flowbackend.repository.TaskChangeCounterRepository;
+import org.flow.flowbackend.repository.TaskRepository;
+import org.flow.flowbackend.repository.TaskTombstoneRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Change sequence behind task delta sync. Writers record the tasks they change or delete; just
+ * before the transaction commits, once its rows are flushed, one number is taken from the
+ * task_change_counter row and stamped on the changed tasks and on tombstones for the deleted ones.
+ *
+ * The counter row stays locked from that step until commit, so numbers become visible in commit
+ * order: a reader that has seen number N never later finds a new change at or below N.
+ */
+@Service
+public class TaskChangeService {
+
+    private static final Long COUNTER_ID = 1L;
+    private static final int STAMP_BATCH_SIZE = 1000;
+
+    private final TaskRepository taskRepository;
+    private final TaskChangeCounterRepository taskChangeCounterRepository;
+    private final TaskTombstoneRepository taskTombstoneRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long tombstoneRetentionDays;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public TaskChangeService(TaskRepository taskRepository,
+                             TaskChangeCounterRepository taskChangeCounterRepository,
+                             TaskTombstoneRepository taskTombstoneRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.tasks.tombstone-retention-days:30}") long tombstoneRetentionDays) {
+        this.taskRepository = taskRepository;
+        this.taskChangeCounterRepository = taskChangeCounterRepository;
+        this.taskTombstoneRepository = taskTombstoneRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tombstoneRetentionDays = tombstoneRetentionDays;
+    }
+
+    // ===================== Recording =====================
+
+    public void recordChanged(Task task) {
+        pending().changedIds.add(task.getId());
+    }
+
+    public void recordChangedAll(Collection<Task> tasks) {
+        Pending pending = pending();
+        tasks.forEach(task -> pending.changedIds.add(task.getId()));
+    }
+
+    public void recordChangedIds(Collection<Long> taskIds) {
+        pending().changedIds.addAll(taskIds);
+    }
+
+    public void recordDeleted(Task task) {
+        recordDeletedAll(List.of(task));
+    }
+
+    public void recordDeletedAll(Collection<Task> tasks) {
+        Pending pending = pending();
+        for (Task task : tasks) {
+            pending.tombstones.put(task.getId(), TaskTombstone.builder()
+                    .taskId(task.getId())
+                    .projectId(task.getProject().getId())
+                    .build());
+        }
+    }
+
+    /**
+     * Tombstones every task of a project that is about to be deleted along with its tasks.
+     */
+    public void recordProjectDeleted(Long projectId) {
+        Pending pending = pending();
+        for (Long taskId : taskRepository.findIdsByProjectId(projectId)) {
+            pending.tombstones.put(taskId, TaskTombstone.builder()
+                    .taskId(taskId)
+                    .projectId(projectId)
+                    .build());
+        }
+    }
+
+    private Pending pending() {
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                throw new IllegalStateException("Task changes must be recorded inside a transaction");
+            }
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    // Changes recorded by one transaction, stamped right before it commits
+    private class Pending implements TransactionSynchronization {
+        private final Set<Long> changedIds = new LinkedHashSet<>();
+        private final Map<Long, TaskTombstone> tombstones = new LinkedHashMap<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            stamp(this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TaskChangeService.this);
+        }
+    }
+
+    private void stamp(Pending pending) {
+        pending.changedIds.removeAll(pending.tombstones.keySet());
+        if (pending.changedIds.isEmpty() && pending.tombstones.isEmpty()) {
+            return;
+        }
+        // Write the task rows first, so the counter is the last lock this transaction takes
+        entityManager.flush();
+        long changeSeq = nextSequence();
+
+        List<Long> ids = new ArrayList<>(pending.changedIds);
+        for (int i = 0; i < ids.size(); i += STAMP_BATCH_SIZE) {
+            taskRepository.stampChangeSeq(ids.subList(i, Math.min(i + STAMP_BATCH_SIZE, ids.size())), changeSeq);
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        for (TaskTombstone tombstone : pending.tombstones.values()) {
+            tombstone.setChangeSeq(changeSeq);
+            tombstone.setDeletedAt(now);
+            entityManager.persist(tombstone);
+        }
+        entityManager.flush();
+    }
+
+    private long nextSequence() {
+        if (taskChangeCounterRepository.increment(COUNTER_ID) == 0) {
+            seedCounter();
+            taskChangeCounterRepository.increment(COUNTER_ID);
+        }
+        return taskChangeCounterRepository.findLastSeq(COUNTER_ID);
+    }
+
+    private void seedCounter() {
+        Long tasks = taskRepository.findMaxChangeSeq();
+        Long tombstones = taskTombstoneRepository.findMaxChangeSeq();
+        long lastSeq = Math.max(tasks != null ? tasks : 0, tombstones != null ? tombstones : 0);
+        taskChangeCounterRepository.saveAndFlush(new TaskChangeCounter(COUNTER_ID, lastSeq, 0));
+    }
+
+    // ===================== Reading =====================
+
+    /**
+     * The last committed change sequence, or -1 before anything was stamped.
+     */
+    public long getLastSequence() {
+        Long lastSeq = taskChangeCounterRepository.findLastSeq(COUNTER_ID);
+        return lastSeq != null ? lastSeq : -1;
+    }
+
+    /**
+     * Tombstones up to this sequence are gone; cursors below it cannot be continued.
+     */
+    public long getPurgedThrough() {
+        Long purgedThrough = taskChangeCounterRepository.findPurgedThrough(COUNTER_ID);
+        return purgedThrough != null ? purgedThrough : 0;
+    }
+
+    // ===================== Maintenance =====================
+
+    // Tasks written before the change sequence existed count as sequence 0
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepareOnStartup() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!taskChangeCounterRepository.existsById(COUNTER_ID)) {
+                    seedCounter();
+                }
+                int backfilled = taskRepository.backfillChangeSeq();
+                if (backfilled > 0) {
+                    System.out.println("Task change sequence backfilled for " + backfilled + " tasks");
+                }
+            });
+        } catch (Exception e) {
+            System.err.println("Task change sequence setup failed: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${app.tasks.tombstone-purge-cron:0 30 3 * * *}")
+    public void purgeTombstones() {
+        try {
+            Integer purged = transactionTemplate.execute(status -> {
+                Long through = taskTombstoneRepository.findMaxChangeSeqDeletedBefore(
+                        OffsetDateTime.now().minusDays(tombstoneRetentionDays));
+                if (through == null) {
+                    return 0;
+                }
+                taskChangeCounterRepository.advancePurgedThrough(COUNTER_ID, through);
+                return taskTombstoneRepository.deleteThrough(through);
+            });
+            if (purged != null && purged > 0) {
+                System.out.println("Task tombstones purged: " + purged);
+            }
+        } catch (Exception e) {
+            System.err.println("Task tombstone purge failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package org.flow.flowbackend.service;
+
+import org.flow.flowbackend.model.Task;
+import org.flow.flowbackend.model.TaskPriority;
+import org.flow.flowbackend.model.TaskStatus;
+import org.flow.flowbackend.repository.TaskRepository;
+import org.flow.flowbackend.repository.TaskRepository.SubtreeRollup;
+import org.flow.flowbackend.repository.TaskRepository.TaskPathRow;
+import org.flow.flowbackend.repository.TaskRepository.TaskTreeRow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Subtask trees built on Task.parentTask. Subtrees, ancestor paths and roll-ups are each read with
+ * one recursive query instead of walking parents one lazy load at a time, so nothing extra has to
+ * be maintained when tasks are created, re-parented or deleted.
+ */
+@Service
+public class TaskHierarchyService {
+
+    // Deepest nesting allowed below a top-level task; also bounds every recursive walk
+    public static final int MAX_DEPTH = 32;
+
+    private final TaskRepository taskRepository;
+
+    @Autowired
+    public TaskHierarchyService(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    /**
+     * The task with its nested subtasks, each node carrying counts and hours rolled up from its own
+     * subtree, plus the path of ancestors from the top-level task down to its parent.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getTree(Long taskId) {
+        List<TaskTreeRow> rows = taskRepository.findSubtree(taskId, MAX_DEPTH);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Task not found");
+        }
+
+        // Rows come parents first and siblings in board order, so children are appended in order
+        Map<Long, Map<String, Object>> nodes = new LinkedHashMap<>();
+        for (TaskTreeRow row : rows) {
+            Map<String, Object> node = toNode(row);
+            nodes.put(row.getId(), node);
+            Map<String, Object> parent = row.getDepth() > 0 ? nodes.get(row.getParentTaskId()) : null;
+            if (parent != null) {
+                subtasksOf(parent).add(node);
+            }
+        }
+
+        // Deepest rows first: each node's totals are final before they are added to its parent
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            TaskTreeRow row = rows.get(i);
+            Map<String, Object> node = nodes.get(row.getId());
+            long subtasks = (long) node.get("subtaskCount");
+            long completed = (long) node.get("completedSubtasks");
+            node.put("progress", progress(subtasks, completed, TaskStatus.fromCode(row.getStatus()) == TaskStatus.DONE));
+
+            Map<String, Object> parent = row.getDepth() > 0 ? nodes.get(row.getParentTaskId()) : null;
+            if (parent != null) {
+                parent.put("subtaskCount", (long) parent.get("subtaskCount") + subtasks + 1);
+                parent.put("completedSubtasks", (long) parent.get("completedSubtasks") + completed
+                        + (TaskStatus.fromCode(row.getStatus()) == TaskStatus.DONE ? 1 : 0));
+                parent.put("totalEstimatedHours", (double) parent.get("totalEstimatedHours") + (double) node.get("totalEstimatedHours"));
+                parent.put("totalActualHours", (double) parent.get("totalActualHours") + (double) node.get("totalActualHours"));
+            }
+        }
+
+        Map<String, Object> tree = new HashMap<>();
+        tree.put("path", getAncestors(taskId));
+        tree.put("tree", nodes.get(taskId));
+        return tree;
+    }
+
+    /**
+     * Ancestors of the task from the top-level task down to its direct parent.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAncestors(Long taskId) {
+        List<TaskPathRow> rows = taskRepository.findPath(taskId, MAX_DEPTH);
+        List<Map<String, Object>> path = new ArrayList<>();
+        for (TaskPathRow row : rows) {
+            if (row.getDepth() > 0) {
+                Map<String, Object> ancestor = new LinkedHashMap<>();
+                ancestor.put("id", row.getId());
+                ancestor.put("title", row.getTitle());
+                ancestor.put("status", TaskStatus.fromCode(row.getStatus()).getValue());
+                path.add(ancestor);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Completion of the task aggregated from its whole subtree in one query.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getProgress(Long taskId) {
+        SubtreeRollup rollup = taskRepository.rollUpSubtree(taskId, MAX_DEPTH, TaskStatus.DONE.getCode());
+        if (rollup == null || rollup.getHeight() == null) {
+            throw new RuntimeException("Task not found");
+        }
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("taskId", taskId);
+        progress.put("subtaskCount", rollup.getSubtaskCount());
+        progress.put("completedSubtasks", rollup.getCompletedSubtasks());
+        progress.put("subtreeDepth", rollup.getHeight());
+        progress.put("progress", progress(rollup.getSubtaskCount(), rollup.getCompletedSubtasks(), rollup.getDone() > 0));
+        progress.put("estimatedHours", rollup.getEstimatedHours());
+        progress.put("actualHours", rollup.getActualHours());
+        return progress;
+    }
+
+    /**
+     * Validates nesting task under parent (null makes it a top-level task): both must be in the
+     * same project, the parent must not sit in the task's own subtree, and the result must stay
+     * within {@value #MAX_DEPTH} levels.
+     */
+    public void checkParent(Task task, Task parent) {
+        if (parent == null) {
+            return;
+        }
+        if (!parent.getProject().getId().equals(task.getProject().getId())) {
+            throw new RuntimeException("Parent task must belong to the same project");
+        }
+        if (parent.getId().equals(task.getId())) {
+            throw new RuntimeException("A task cannot be its own parent");
+        }
+
+        List<TaskPathRow> parentPath = taskRepository.findPath(parent.getId(), MAX_DEPTH);
+        int height = 0;
+        if (task.getId() != null) {
+            if (parentPath.stream().anyMatch(row -> row.getId().equals(task.getId()))) {
+                throw new RuntimeException("A task cannot be nested under its own subtask");
+            }
+            height = taskRepository.rollUpSubtree(task.getId(), MAX_DEPTH, TaskStatus.DONE.getCode()).getHeight();
+        }
+        // parentPath holds the parent and its ancestors, which is the task's new depth
+        if (parentPath.size() + height > MAX_DEPTH) {
+            throw new RuntimeException("Subtasks cannot be nested more than " + MAX_DEPTH + " levels deep");
+        }
+    }
+
+    private Map<String, Object> toNode(TaskTreeRow row) {
+        Map<String, Object> node = new LinkedHashMap<>();
+        node.put("id", row.getId());
+        node.put("parentTaskId", row.getParentTaskId());
+        node.put("title", row.getTitle());
+        node.put("status", TaskStatus.fromCode(row.getStatus()).getValue());
+        node.put("priority", TaskPriority.fromCode(row.getPriority()).getValue());
+        node.put("assignedToId", row.getAssignedToId());
+        node.put("assignedToName", row.getAssignedToId() != null
+                ? row.getAssignedToFirstName() + " " + row.getAssignedToLastName() : null);
+        node.put("estimatedHours", row.getEstimatedHours());
+        node.put("actualHours", row.getActualHours());
+        node.put("rank", row.getBoardRank());
+        node.put("depth", row.getDepth());
+        node.put("subtaskCount", 0L);
+        node.put("completedSubtasks", 0L);
+        node.put("totalEstimatedHours", row.getEstimatedHours() != null ? row.getEstimatedHours() : 0.0);
+        node.put("totalActualHours", row.getActualHours() != null ? row.getActualHours() : 0.0);
+        node.put("subtasks", new ArrayList<Map<String, Object>>());
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> subtasksOf(Map<String, Object> node) {
+        return (List<Map<String, Object>>) node.get("subtasks");
+    }
+
+    // Percentage of completed subtasks; a task without subtasks is all or nothing
+    private int progress(long subtasks, long completed, boolean done) {
+        if (subtasks == 0) {
+            return done ? 100 : 0;
+        }
+        return (int) (completed * 100 / subtasks);
+    }
+}
@@ -0,0 +1,602 @@
+package org.flow.flowbackend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.flow.flowbackend.model.Project;
+import org.flow.flowbackend.model.ProjectMember;
+import org.flow.flowbackend.model.Task;
+import org.flow.flowbackend.model.TaskPriority;
+import org.flow.flowbackend.model.TaskStatus;
+import org.flow.flowbackend.model.User;
+import org.flow.flowbackend.repository.ProjectMemberRepository;
+import org.flow.flowbackend.repository.ProjectRepository;
+import org.flow.flowbackend.repository.TaskRepository;
+import org.flow.flowbackend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Imports tasks into a project from a CSV or NDJSON stream. Rows are read one at a time, validated,
+ * and inserted in chunks of {@value #CHUNK_SIZE}, each chunk in its own transaction with batched
+ * inserts. Progress and row errors are reported to the caller as they happen, so a failed row never
+ * stops the import and chunks that were already committed stay imported. A chunk the database rejects
+ * is retried one row per transaction, so only the rows that cannot be saved fail.
+ *
+ * Recognised fields: title (required), description, status, priority, dueDate (ISO date or date-time),
+ * estimatedHours, actualHours, assigneeEmail, orderIndex.
+ */
+@Service
+public class TaskImportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final ProjectMemberRepository projectMemberRepository;
+    private final UserRepository userRepository;
+    private final ProjectTaskStatsService projectTaskStatsService;
+    private final SystemSettingsService systemSettingsService;
+    private final ActivityService activityService;
+    private final EmailService emailService;
+    private final DashboardCache dashboardCache;
+    private final TaskRankService taskRankService;
+    private final TaskChangeService taskChangeService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public TaskImportService(TaskRepository taskRepository,
+                             ProjectRepository projectRepository,
+                             ProjectMemberRepository projectMemberRepository,
+                             UserRepository userRepository,
+                             ProjectTaskStatsService projectTaskStatsService,
+                             SystemSettingsService systemSettingsService,
+                             ActivityService activityService,
+                             EmailService emailService,
+                             DashboardCache dashboardCache,
+                             TaskRankService taskRankService,
+                             TaskChangeService taskChangeService,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager) {
+        this.taskRepository = taskRepository;
+        this.projectRepository = projectRepository;
+        this.projectMemberRepository = projectMemberRepository;
+        this.userRepository = userRepository;
+        this.projectTaskStatsService = projectTaskStatsService;
+        this.systemSettingsService = systemSettingsService;
+        this.activityService = activityService;
+        this.emailService = emailService;
+        this.dashboardCache = dashboardCache;
+        this.taskRankService = taskRankService;
+        this.taskChangeService = taskChangeService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Resolves the import format from an explicit value or the request content type.
+     */
+    public static String formatOf(String format, String contentType) {
+        String value = format != null && !format.isBlank() ? format : contentType;
+        if (value == null) {
+            throw new RuntimeException("Import format is required (csv or ndjson)");
+        }
+        value = value.toLowerCase(Locale.ROOT);
+        if (value.contains("csv")) {
+            return FORMAT_CSV;
+        }
+        if (value.contains("ndjson") || value.contains("jsonl") || value.contains("json")) {
+            return FORMAT_NDJSON;
+        }
+        throw new RuntimeException("Unsupported import format: " + value);
+    }
+
+    public void checkProject(Long projectId) {
+        if (!projectRepository.existsById(projectId)) {
+            throw new RuntimeException("Project not found");
+        }
+    }
+
+    /**
+     * Runs the import and returns the summary. Each event passed to the listener is one of
+     * {type: error, line, message}, {type: progress, processed, imported, failed}.
+     */
+    public Map<String, Object> importTasks(Long projectId, String format, Reader input, User currentUser,
+                                           Consumer<Map<String, Object>> listener) throws IOException {
+        ImportContext context = transactionTemplate.execute(status -> openContext(projectId));
+        RowReader rows = FORMAT_CSV.equals(format)
+                ? new CsvRowReader(new BufferedReader(input))
+                : new NdjsonRowReader(new BufferedReader(input), objectMapper);
+
+        int processed = 0;
+        int imported = 0;
+        int failed = 0;
+        boolean limitReached = false;
+        List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        Map<String, String> row;
+        while (true) {
+            try {
+                row = rows.next();
+            } catch (RowException e) {
+                processed++;
+                failed++;
+                reportError(listener, failed, e.line, e.getMessage());
+                continue;
+            }
+            if (row == null) {
+                break;
+            }
+            processed++;
+
+            if (imported + chunk.size() >= context.capacity) {
+                limitReached = true;
+                failed++;
+                reportError(listener, failed, rows.line(),
+                        "Maximum number of tasks (" + context.maxTasks + ") reached for this project.");
+                break;
+            }
+
+            try {
+                chunk.add(toImportRow(row, rows.line(), context));
+            } catch (RuntimeException e) {
+                failed++;
+                reportError(listener, failed, rows.line(), e.getMessage());
+            }
+
+            if (chunk.size() == CHUNK_SIZE) {
+                int inserted = insertChunk(context, chunk, currentUser, listener, failed);
+                imported += inserted;
+                failed += chunk.size() - inserted;
+                chunk.clear();
+                listener.accept(progress(processed, imported, failed));
+            }
+        }
+        if (!chunk.isEmpty()) {
+            int inserted = insertChunk(context, chunk, currentUser, listener, failed);
+            imported += inserted;
+            failed += chunk.size() - inserted;
+        }
+        listener.accept(progress(processed, imported, failed));
+
+        if (imported > 0) {
+            taskRankService.noteRank(projectId, context.lastRank);
+            int count = imported;
+            transactionTemplate.executeWithoutResult(status -> {
+                Project project = projectRepository.findById(projectId)
+                        .orElseThrow(() -> new RuntimeException("Project not found"));
+                activityService.recordBulkTaskActivity(project, ActivityService.ACTION_CREATED, count, currentUser);
+                dashboardCache.invalidateOrganization(project.getOrganization().getId());
+            });
+            context.assignees.forEach(dashboardCache::invalidateUser);
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("type", "summary");
+        summary.put("processed", processed);
+        summary.put("imported", imported);
+        summary.put("failed", failed);
+        summary.put("limitReached", limitReached);
+        return summary;
+    }
+
+    // ===================== Rows =====================
+
+    private ImportContext openContext(Long projectId) {
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new RuntimeException("Project not found"));
+
+        ImportContext context = new ImportContext();
+        context.projectId = project.getId();
+        context.lastRank = taskRepository.findMaxRank(projectId);
+        context.maxTasks = systemSettingsService.getMaxTasksPerProject();
+        context.capacity = Math.max(0, context.maxTasks - projectTaskStatsService.getTaskCount(projectId));
+        projectMemberRepository.findByProject(project).forEach(pm -> context.memberIds.add(pm.getUser().getId()));
+        if (project.getProjectManager() != null) {
+            context.memberIds.add(project.getProjectManager().getId());
+        }
+        if (project.getCreatedBy() != null) {
+            context.memberIds.add(project.getCreatedBy().getId());
+        }
+        return context;
+    }
+
+    private ImportRow toImportRow(Map<String, String> row, long line, ImportContext context) {
+        String title = trimToNull(row.get("title"));
+        if (title == null) {
+            throw new RuntimeException("Title is required");
+        }
+        if (title.length() > MAX_TITLE_LENGTH) {
+            throw new RuntimeException("Title is longer than " + MAX_TITLE_LENGTH + " characters");
+        }
+        String description = trimToNull(row.get("description"));
+        if (description != null && description.length() > MAX_DESCRIPTION_LENGTH) {
+            throw new RuntimeException("Description is longer than " + MAX_DESCRIPTION_LENGTH + " characters");
+        }
+
+        String status = trimToNull(row.get("status"));
+        String priority = trimToNull(row.get("priority"));
+        String orderIndex = trimToNull(row.get("orderIndex"));
+        Task task = Task.builder()
+                .title(title)
+                .description(description)
+                .status(status != null ? TaskStatus.fromValue(status) : TaskStatus.TODO)
+                .priority(priority != null ? TaskPriority.fromValue(priority) : TaskPriority.MEDIUM)
+                .dueDate(parseDueDate(trimToNull(row.get("dueDate"))))
+                .estimatedHours(parseHours("estimatedHours", trimToNull(row.get("estimatedHours"))))
+                .actualHours(parseHours("actualHours", trimToNull(row.get("actualHours"))))
+                .createdAt(OffsetDateTime.now())
+                .orderIndex(orderIndex != null ? parseInteger("orderIndex", orderIndex) : 0)
+                .build();
+
+        // Assignees are resolved once per distinct email
+        Long assigneeId = null;
+        String assigneeEmail = trimToNull(row.get("assigneeEmail"));
+        if (assigneeEmail != null) {
+            assigneeId = context.usersByEmail.computeIfAbsent(assigneeEmail.toLowerCase(Locale.ROOT),
+                    email -> userRepository.findByEmail(email).map(User::getId).orElse(null));
+            if (assigneeId == null) {
+                throw new RuntimeException("Assigned user not found: " + assigneeEmail);
+            }
+        }
+        // Imported rows are appended to the board in file order
+        context.lastRank = TaskRankService.after(context.lastRank);
+        task.setRank(context.lastRank);
+        return new ImportRow(task, assigneeId, line);
+    }
+
+    /**
+     * Inserts the chunk and returns the number of rows saved. When the database rejects the chunk,
+     * its transaction is rolled back as a whole and every row is tried again on its own; the rows
+     * that still fail are reported, numbered on from failedBefore.
+     */
+    private int insertChunk(ImportContext context, List<ImportRow> chunk, User currentUser,
+                            Consumer<Map<String, Object>> listener, int failedBefore) {
+        try {
+            insertRows(context, chunk, currentUser);
+            return chunk.size();
+        } catch (DataAccessException e) {
+            System.err.println("Task import chunk rolled back, retrying row by row: " + e.getMostSpecificCause().getMessage());
+        }
+
+        int inserted = 0;
+        int failed = failedBefore;
+        for (ImportRow row : chunk) {
+            try {
+                insertRows(context, List.of(row), currentUser);
+                inserted++;
+            } catch (DataAccessException e) {
+                failed++;
+                System.err.println("Task import row " + row.line() + " rejected: " + e.getMostSpecificCause().getMessage());
+                reportError(listener, failed, row.line(), "Task could not be saved");
+            }
+        }
+        return inserted;
+    }
+
+    private void insertRows(ImportContext context, List<ImportRow> rows, User currentUser) {
+        // Memberships and assignees noted by a transaction that rolls back are forgotten again
+        Set<Long> memberIds = new HashSet<>(context.memberIds);
+        Set<Long> assignees = new HashSet<>(context.assignees);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Project project = entityManager.getReference(Project.class, context.projectId);
+                User creator = entityManager.getReference(User.class, currentUser.getId());
+                List<Task> tasks = new ArrayList<>(rows.size());
+                for (ImportRow row : rows) {
+                    Task task = row.task();
+                    task.setProject(project);
+                    task.setCreatedBy(creator);
+                    if (row.assigneeId() != null) {
+                        task.setAssignedTo(entityManager.getReference(User.class, row.assigneeId()));
+                        context.assignees.add(row.assigneeId());
+                        if (context.memberIds.add(row.assigneeId())) {
+                            addMember(context.projectId, row.assigneeId());
+                        }
+                    }
+                    tasks.add(task);
+                }
+                taskRepository.saveAll(tasks);
+                taskChangeService.recordChangedAll(tasks);
+                projectTaskStatsService.recordCreatedAll(context.projectId, tasks);
+                // Through the repository, so a rejected insert surfaces as a DataAccessException
+                taskRepository.flush();
+                entityManager.clear();
+            });
+        } catch (DataAccessException e) {
+            context.memberIds.retainAll(memberIds);
+            context.assignees.retainAll(assignees);
+            // The rolled back inserts had already been given ids; cleared so the tasks are inserted as new
+            rows.forEach(row -> row.task().setId(null));
+            throw e;
+        }
+    }
+
+    // Same implicit membership as TaskService.createTask
+    private void addMember(Long projectId, Long userId) {
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new RuntimeException("Project not found"));
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("Assigned user not found"));
+        projectMemberRepository.save(ProjectMember.builder()
+                .project(project)
+                .user(user)
+                .role("TEAM_MEMBER")
+                .joinedAt(OffsetDateTime.now())
+                .build());
+        emailService.sendProjectAssignmentEmail(user, project, "TEAM_MEMBER");
+    }
+
+    private void reportError(Consumer<Map<String, Object>> listener, int failed, long line, String message) {
+        if (failed > MAX_REPORTED_ERRORS) {
+            return;
+        }
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("type", "error");
+        event.put("line", line);
+        event.put("message", message);
+        listener.accept(event);
+    }
+
+    private Map<String, Object> progress(int processed, int imported, int failed) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("type", "progress");
+        event.put("processed", processed);
+        event.put("imported", imported);
+        event.put("failed", failed);
+        return event;
+    }
+
+    private OffsetDateTime parseDueDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return value.length() <= 10
+                    ? LocalDate.parse(value).atStartOfDay().atOffset(ZoneOffset.UTC)
+                    : OffsetDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Invalid dueDate: " + value);
+        }
+    }
+
+    private Double parseHours(String field, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            double hours = Double.parseDouble(value);
+            if (hours < 0) {
+                throw new NumberFormatException();
+            }
+            return hours;
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid " + field + ": " + value);
+        }
+    }
+
+    private Integer parseInteger(String field, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid " + field + ": " + value);
+        }
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private record ImportRow(Task task, Long assigneeId, long line) {
+    }
+
+    private static class ImportContext {
+        Long projectId;
+        String lastRank;
+        int maxTasks;
+        long capacity;
+        final Set<Long> memberIds = new HashSet<>();
+        final Set<Long> assignees = new HashSet<>();
+        final Map<String, Long> usersByEmail = new HashMap<>();
+    }
+
+    // ===================== Readers =====================
+
+    private static class RowException extends RuntimeException {
+        final long line;
+
+        RowException(long line, String message) {
+            super(message);
+            this.line = line;
+        }
+    }
+
+    private interface RowReader {
+        /**
+         * Next row keyed by field name, or null at the end of the input.
+         */
+        Map<String, String> next() throws IOException;
+
+        /**
+         * Line on which the row last returned by {@link #next()} starts.
+         */
+        long line();
+    }
+
+    /**
+     * RFC 4180 CSV with a header row: quoted fields may contain commas, doubled quotes and line breaks.
+     */
+    private static class CsvRowReader implements RowReader {
+        private final BufferedReader reader;
+        private List<String> header;
+        private long currentLine = 0;
+        private long rowLine = 0;
+
+        CsvRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            if (header == null) {
+                header = readRecord();
+                if (header == null) {
+                    return null;
+                }
+                header.replaceAll(String::trim);
+                if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+                    header.set(0, header.get(0).substring(1));
+                }
+            }
+            List<String> record;
+            do {
+                record = readRecord();
+                if (record == null) {
+                    return null;
+                }
+            } while (record.size() == 1 && record.get(0).isEmpty());
+
+            if (record.size() > header.size()) {
+                throw new RowException(rowLine, "Expected at most " + header.size() + " fields but found " + record.size());
+            }
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < record.size(); i++) {
+                row.put(header.get(i), record.get(i));
+            }
+            return row;
+        }
+
+        @Override
+        public long line() {
+            return rowLine;
+        }
+
+        private List<String> readRecord() throws IOException {
+            String line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            currentLine++;
+            rowLine = currentLine;
+
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == line.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    // Line break inside a quoted field
+                    line = reader.readLine();
+                    if (line == null) {
+                        throw new RowException(rowLine, "Unterminated quoted field");
+                    }
+                    currentLine++;
+                    field.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = line.charAt(i++);
+                if (quoted) {
+                    if (c == '"') {
+                        if (i < line.length() && line.charAt(i) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    /**
+     * One JSON object per line; blank lines are skipped.
+     */
+    private static class NdjsonRowReader implements RowReader {
+        private final BufferedReader reader;
+        private final ObjectMapper objectMapper;
+        private long currentLine = 0;
+
+        NdjsonRowReader(BufferedReader reader, ObjectMapper objectMapper) {
+            this.reader = reader;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+                currentLine++;
+            } while (line.isBlank());
+
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (IOException e) {
+                throw new RowException(currentLine, "Invalid JSON");
+            }
+            if (node == null || !node.isObject()) {
+                throw new RowException(currentLine, "Expected a JSON object");
+            }
+            Map<String, String> row = new HashMap<>();
+            node.properties().forEach(field -> {
+                if (!field.getValue().isNull()) {
+                    row.put(field.getKey(), field.getValue().asText());
+                }
+            });
+            return row;
+        }
+
+        @Override
+        public long line() {
+            return currentLine;
+        }
+    }
+}
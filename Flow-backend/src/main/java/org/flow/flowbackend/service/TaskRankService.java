@@ -0,0 +1,235 @@
+package org.flow.flowbackend.service;
+
+import org.flow.flowbackend.model.Task;
+import org.flow.flowbackend.repository.ProjectRepository;
+import org.flow.flowbackend.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Board order of tasks within a project, kept as fractional base-36 rank strings compared
+ * lexicographically. A move picks a rank strictly between its new neighbours, so it rewrites only
+ * the moved row; ranks that grew long are evened out later by a background rebalance.
+ *
+ * Ranks never end in '0', which guarantees a rank exists between any two distinct ranks.
+ */
+@Service
+public class TaskRankService {
+
+    private static final String DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = 36;
+    private static final int WIDTH = 6;
+    private static final long SPACE = 2_176_782_336L; // 36^6
+    private static final long APPEND_STEP = 46_656L; // 36^3
+    private static final long MAX_REBALANCE_GAP = 1_679_616L; // 36^4
+
+    public static final int MAX_RANK_LENGTH = 64; // tasks.board_rank column length
+    private static final int REBALANCE_THRESHOLD = 12;
+
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final TaskChangeService taskChangeService;
+    private final TransactionTemplate transactionTemplate;
+    private final Set<Long> pendingRebalance = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public TaskRankService(TaskRepository taskRepository,
+                           ProjectRepository projectRepository,
+                           TaskChangeService taskChangeService,
+                           PlatformTransactionManager transactionManager) {
+        this.taskRepository = taskRepository;
+        this.projectRepository = projectRepository;
+        this.taskChangeService = taskChangeService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // ===================== Rank Arithmetic =====================
+
+    /**
+     * A rank strictly between lower and upper; either bound may be null (open end).
+     */
+    public static String between(String lower, String upper) {
+        if (lower != null && upper != null && lower.compareTo(upper) >= 0) {
+            throw new IllegalArgumentException("Rank " + lower + " is not below " + upper);
+        }
+        StringBuilder rank = new StringBuilder();
+        for (int i = 0; ; i++) {
+            int lo = lower != null && i < lower.length() ? DIGITS.indexOf(lower.charAt(i)) : 0;
+            int hi = upper != null && i < upper.length() ? DIGITS.indexOf(upper.charAt(i)) : BASE;
+            if (hi - lo > 1) {
+                return rank.append(DIGITS.charAt((lo + hi) / 2)).toString();
+            }
+            rank.append(DIGITS.charAt(lo));
+            if (hi - lo == 1) {
+                // The prefix is now below upper whatever follows
+                upper = null;
+            }
+        }
+    }
+
+    /**
+     * A rank after lower that leaves room for further appends; null starts a new board.
+     */
+    public static String after(String lower) {
+        if (lower == null) {
+            return format(MAX_REBALANCE_GAP);
+        }
+        long next = prefixValue(lower) + APPEND_STEP;
+        return next < SPACE ? format(next) : between(lower, null);
+    }
+
+    // Value of the first WIDTH digits; every rank with this prefix sorts below prefixValue + 1
+    private static long prefixValue(String rank) {
+        long value = 0;
+        for (int i = 0; i < WIDTH; i++) {
+            value = value * BASE + (i < rank.length() ? DIGITS.indexOf(rank.charAt(i)) : 0);
+        }
+        return value;
+    }
+
+    private static String format(long value) {
+        char[] digits = new char[WIDTH];
+        for (int i = WIDTH - 1; i >= 0; i--) {
+            digits[i] = DIGITS.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        int length = WIDTH;
+        while (length > 1 && digits[length - 1] == '0') {
+            length--;
+        }
+        return new String(digits, 0, length);
+    }
+
+    // ===================== Board Operations =====================
+
+    /**
+     * Rank for a task appended to the end of the project's board.
+     */
+    public String rankAfterLast(Long projectId) {
+        String rank = after(taskRepository.findMaxRank(projectId));
+        noteRank(projectId, rank);
+        return rank;
+    }
+
+    /**
+     * Ranks the task between its new neighbours (either may be null) and returns the new rank. Only
+     * the moved task is changed unless the neighbours' ranks leave no room, in which case the
+     * project is rebalanced first.
+     */
+    @Transactional
+    public String move(Task task, Task previous, Task next) {
+        Long projectId = task.getProject().getId();
+        projectRepository.findForUpdate(projectId);
+
+        String lower = previous != null ? previous.getRank() : null;
+        String upper = next != null ? next.getRank() : null;
+        if (previous == null && next == null) {
+            lower = taskRepository.findMaxRank(projectId);
+            if (lower != null && lower.equals(task.getRank())) {
+                return lower;
+            }
+            return assign(projectId, task, after(lower));
+        }
+
+        boolean unranked = (previous != null && lower == null) || (next != null && upper == null);
+        if (unranked || (lower != null && upper != null && lower.compareTo(upper) >= 0)) {
+            rebalance(projectId);
+            lower = previous != null ? previous.getRank() : null;
+            upper = next != null ? next.getRank() : null;
+        }
+
+        String rank = between(lower, upper);
+        if (rank.length() > MAX_RANK_LENGTH) {
+            rebalance(projectId);
+            rank = between(previous != null ? previous.getRank() : null, next != null ? next.getRank() : null);
+        }
+        return assign(projectId, task, rank);
+    }
+
+    /**
+     * Hands the ranks currently held by these tasks back out in the given order, so they swap places
+     * among themselves without touching any other task.
+     */
+    @Transactional
+    public void reorder(Long projectId, List<Task> orderedTasks) {
+        projectRepository.findForUpdate(projectId);
+        if (orderedTasks.stream().anyMatch(t -> t.getRank() == null)) {
+            rebalance(projectId);
+        }
+        List<String> ranks = new ArrayList<>();
+        orderedTasks.forEach(t -> ranks.add(t.getRank()));
+        ranks.sort(null);
+        for (int i = 0; i < orderedTasks.size(); i++) {
+            orderedTasks.get(i).setRank(ranks.get(i));
+        }
+    }
+
+    /**
+     * Rewrites the project's ranks evenly spaced and short, keeping the current order; unranked tasks
+     * go last in (orderIndex, id) order.
+     */
+    @Transactional
+    public void rebalance(Long projectId) {
+        projectRepository.findForUpdate(projectId);
+        List<Task> tasks = taskRepository.findForRebalance(projectId);
+        long gap = Math.min(MAX_REBALANCE_GAP, SPACE / (2L * (tasks.size() + 1)));
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).setRank(format(gap * (i + 1)));
+        }
+        taskRepository.saveAll(tasks);
+        taskChangeService.recordChangedAll(tasks);
+        pendingRebalance.remove(projectId);
+    }
+
+    private String assign(Long projectId, Task task, String rank) {
+        task.setRank(rank);
+        if (rank.length() > REBALANCE_THRESHOLD) {
+            pendingRebalance.add(projectId);
+        }
+        return rank;
+    }
+
+    /**
+     * Marks a project for the next background rebalance when a rank handed out for it grew long.
+     */
+    public void noteRank(Long projectId, String rank) {
+        if (rank != null && rank.length() > REBALANCE_THRESHOLD) {
+            pendingRebalance.add(projectId);
+        }
+    }
+
+    // ===================== Background Rebalance =====================
+
+    // Tasks created before ranks existed get one from their legacy orderIndex
+    @EventListener(ApplicationReadyEvent.class)
+    public void rankUnrankedOnStartup() {
+        try {
+            pendingRebalance.addAll(taskRepository.findProjectIdsWithUnrankedTasks());
+            rebalancePending();
+        } catch (Exception e) {
+            System.err.println("Task rank backfill failed: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.tasks.rank-rebalance-delay-ms:60000}")
+    public void rebalancePending() {
+        for (Long projectId : new ArrayList<>(pendingRebalance)) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> rebalance(projectId));
+            } catch (Exception e) {
+                System.err.println("Task rank rebalance failed for project " + projectId + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -2,27 +2,46 @@ package org.flow.flowbackend.service;
 
 import org.flow.flowbackend.model.Project;
 import org.flow.flowbackend.model.Task;
+import org.flow.flowbackend.model.TaskPriority;
+import org.flow.flowbackend.model.TaskStatus;
+import org.flow.flowbackend.model.TaskTombstone;
 import org.flow.flowbackend.model.User;
 import org.flow.flowbackend.payload.request.CreateTaskRequest;
 import org.flow.flowbackend.payload.request.UpdateTaskRequest;
 import org.flow.flowbackend.payload.response.TaskDTO;
 import org.flow.flowbackend.repository.TaskCommentRepository;
+import org.flow.flowbackend.repository.TaskListRow;
 import org.flow.flowbackend.repository.TaskRepository;
+import org.flow.flowbackend.repository.TaskTombstoneRepository;
 import org.flow.flowbackend.repository.UserRepository;
 import org.flow.flowbackend.repository.ProjectMemberRepository;
 import org.flow.flowbackend.model.ProjectMember;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class TaskService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_BULK_TASKS = 500;
+
     private final TaskRepository taskRepository;
     private final ProjectService projectService;
     private final UserRepository userRepository;
@@ -31,6 +50,13 @@ public class TaskService {
     private final ProjectMemberRepository projectMemberRepository;
     private final EmailService emailService;
     private final SystemSettingsService systemSettingsService;
+    private final ProjectTaskStatsService projectTaskStatsService;
+    private final ActivityService activityService;
+    private final DashboardCache dashboardCache;
+    private final TaskRankService taskRankService;
+    private final TaskHierarchyService taskHierarchyService;
+    private final TaskChangeService taskChangeService;
+    private final TaskTombstoneRepository taskTombstoneRepository;
 
     @Autowired
     public TaskService(TaskRepository taskRepository, 
@@ -40,7 +66,14 @@ public class TaskService {
                        NotificationService notificationService,
                        ProjectMemberRepository projectMemberRepository,
                        EmailService emailService,
-                       SystemSettingsService systemSettingsService) {
+                       SystemSettingsService systemSettingsService,
+                       ProjectTaskStatsService projectTaskStatsService,
+                       ActivityService activityService,
+                       DashboardCache dashboardCache,
+                       TaskRankService taskRankService,
+                       TaskHierarchyService taskHierarchyService,
+                       TaskChangeService taskChangeService,
+                       TaskTombstoneRepository taskTombstoneRepository) {
         this.taskRepository = taskRepository;
         this.projectService = projectService;
         this.userRepository = userRepository;
@@ -49,6 +82,13 @@ public class TaskService {
         this.projectMemberRepository = projectMemberRepository;
         this.emailService = emailService;
         this.systemSettingsService = systemSettingsService;
+        this.projectTaskStatsService = projectTaskStatsService;
+        this.activityService = activityService;
+        this.dashboardCache = dashboardCache;
+        this.taskRankService = taskRankService;
+        this.taskHierarchyService = taskHierarchyService;
+        this.taskChangeService = taskChangeService;
+        this.taskTombstoneRepository = taskTombstoneRepository;
     }
 
     @Transactional
@@ -58,23 +98,31 @@ public class TaskService {
 
         // Check Task Limit
         int maxTasks = systemSettingsService.getMaxTasksPerProject();
-        if (taskRepository.countByProject(project) >= maxTasks) {
+        if (projectTaskStatsService.getTaskCount(project.getId()) >= maxTasks) {
             throw new RuntimeException("Maximum number of tasks (" + maxTasks + ") reached for this project.");
         }
 
         Task task = Task.builder()
                 .title(request.getTitle())
                 .description(request.getDescription())
-                .priority(request.getPriority() != null ? request.getPriority() : "medium")
-                .status("todo")
+                .priority(request.getPriority() != null ? TaskPriority.fromValue(request.getPriority()) : TaskPriority.MEDIUM)
+                .status(TaskStatus.TODO)
                 .dueDate(request.getDueDate())
                 .estimatedHours(request.getEstimatedHours())
                 .project(project)
                 .createdBy(currentUser)
                 .createdAt(OffsetDateTime.now())
                 .orderIndex(0)
+                .rank(taskRankService.rankAfterLast(project.getId()))
                 .build();
 
+        if (request.getParentTaskId() != null) {
+            Task parent = taskRepository.findById(request.getParentTaskId())
+                    .orElseThrow(() -> new RuntimeException("Parent task not found"));
+            taskHierarchyService.checkParent(task, parent);
+            task.setParentTask(parent);
+        }
+
         // Assign user if specified
         if (request.getAssignedToId() != null) {
             User assignee = userRepository.findById(request.getAssignedToId())
@@ -104,11 +152,16 @@ public class TaskService {
         }
 
         Task savedTask = taskRepository.save(task);
+        taskChangeService.recordChanged(savedTask);
+        projectTaskStatsService.recordCreated(savedTask);
+        activityService.recordTaskActivity(savedTask, ActivityService.ACTION_CREATED, currentUser);
+        invalidateDashboards(savedTask);
 
         // Trigger TASK_ASSIGNED notification
         if (savedTask.getAssignedTo() != null && !savedTask.getAssignedTo().getId().equals(currentUser.getId())) {
             notificationService.createNotification(
                 savedTask.getAssignedTo(),
+                savedTask.getProject().getOrganization().getId(),
                 NotificationService.EVENT_TASK_ASSIGNED,
                 "New task assigned",
                 "You have been assigned to '" + savedTask.getTitle() + "'",
@@ -128,44 +181,261 @@ public class TaskService {
         return taskRepository.findById(id);
     }
 
+    /**
+     * The task's version and comment count, which make up its ETag, without loading the task.
+     */
+    public Optional<TaskRepository.TaskVersion> getTaskVersion(Long id) {
+        return taskRepository.findVersionById(id);
+    }
+
+    @Transactional(readOnly = true)
     public List<TaskDTO> getTasksByProject(Long projectId) {
         Project project = projectService.getProjectById(projectId)
                 .orElseThrow(() -> new RuntimeException("Project not found"));
 
-        return taskRepository.findByProject(project)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertRowsToDTOs(taskRepository.findListRowsByProjectId(project.getId()));
     }
 
+    /**
+     * Tasks the user is assigned to, created, or manages the project of, read in one statement.
+     */
     @Transactional(readOnly = true)
     public List<TaskDTO> getTasksByUser(User user) {
-        List<Task> assignedOrCreated = taskRepository.findByAssignedToOrCreatedBy(user, user);
-        List<Task> managedProjectTasks = taskRepository.findByProject_ProjectManager(user);
+        // Strict Access Control: Filter out tasks from inactive organizations unless SUPER_ADMIN
+        return convertRowsToDTOs(taskRepository.findListRowsByUser(user.getId(), isSuperAdmin(user)));
+    }
 
-        java.util.Set<Task> allTasks = new java.util.HashSet<>(assignedOrCreated);
-        allTasks.addAll(managedProjectTasks);
+    /**
+     * Tasks with the given status. SUPER_ADMIN sees every organization; everyone else gets the
+     * same tasks as {@link #getTasksByUser} narrowed to the status.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskDTO> getTasksByStatus(String status, User user) {
+        TaskStatus taskStatus = TaskStatus.fromValue(status);
+        if (isSuperAdmin(user)) {
+            return convertRowsToDTOs(taskRepository.findListRowsByStatus(taskStatus));
+        }
+        return convertRowsToDTOs(taskRepository.findListRowsByUserAndStatus(user.getId(), taskStatus, false));
+    }
 
-        // Strict Access Control: Filter out tasks from inactive organizations unless SUPER_ADMIN
-        boolean isSuperAdmin = user.getRoles() != null && user.getRoles().contains("SUPER_ADMIN");
+    // ===================== Paginated Listing =====================
 
-        return allTasks.stream()
-                .filter(t -> isSuperAdmin || (t.getProject() != null && t.getProject().getOrganization() != null && t.getProject().getOrganization().isActive()))
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    /**
+     * One page of a project's tasks in board order (rank, id), with tasks not ranked yet last in id
+     * order. Pass the returned nextCursor back to get the following page; it is null on the last page.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getTaskPageByProject(Long projectId, String status, String priority, Long assigneeId,
+                                                    OffsetDateTime dueFrom, OffsetDateTime dueTo,
+                                                    String cursor, Integer limit) {
+        Project project = projectService.getProjectById(projectId)
+                .orElseThrow(() -> new RuntimeException("Project not found"));
+
+        int pageSize = pageSizeOf(limit);
+        String afterRank = "";
+        long afterId = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeCursor(cursor, 2);
+            afterRank = position[0];
+            afterId = cursorId(position[1]);
+        }
+        TaskStatus taskStatus = statusOf(status);
+        TaskPriority taskPriority = priorityOf(priority);
+
+        // Ranks are never empty, so an empty rank in the cursor means it is past the ranked tasks
+        boolean inUnranked = cursor != null && !cursor.isBlank() && afterRank.isEmpty();
+        List<TaskListRow> rows = new ArrayList<>();
+        if (!inUnranked) {
+            rows.addAll(taskRepository.findPageByProjectId(project.getId(), afterRank, afterId,
+                    taskStatus, taskPriority, assigneeId, dueFrom, dueTo, PageRequest.of(0, pageSize + 1)));
+        }
+        if (rows.size() <= pageSize) {
+            rows.addAll(taskRepository.findUnrankedPageByProjectId(project.getId(), inUnranked ? afterId : 0,
+                    taskStatus, taskPriority, assigneeId, dueFrom, dueTo, PageRequest.of(0, pageSize + 1 - rows.size())));
+        }
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            TaskListRow last = rows.get(pageSize - 1);
+            nextCursor = encodeCursor((last.rank() != null ? last.rank() : "") + ":" + last.id());
+        }
+        return pageOf(rows, nextCursor);
     }
 
-    public List<TaskDTO> getTasksByStatus(String status) {
-        return taskRepository.findByStatus(status)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    /**
+     * One page of the user's tasks (see {@link #getTasksByUser}), newest first.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getTaskPageByUser(User user, String status, String priority, Long assigneeId,
+                                                 OffsetDateTime dueFrom, OffsetDateTime dueTo,
+                                                 String cursor, Integer limit) {
+        int pageSize = pageSizeOf(limit);
+        long beforeId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            beforeId = cursorId(decodeCursor(cursor, 1)[0]);
+        }
+
+        List<TaskListRow> rows = taskRepository.findPageByUser(user.getId(), isSuperAdmin(user), beforeId,
+                statusOf(status), priorityOf(priority), assigneeId, dueFrom, dueTo,
+                PageRequest.of(0, pageSize + 1));
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = encodeCursor(String.valueOf(rows.get(pageSize - 1).id()));
+        }
+        return pageOf(rows, nextCursor);
+    }
+
+    // ===================== Delta Sync =====================
+
+    /**
+     * Tasks created, updated or deleted after the since cursor, oldest change first: changed tasks
+     * as DTOs, deleted ones as ids. Without a cursor every task is returned (a full sync) and no
+     * deletes. Keep calling with nextCursor while hasMore is set. If the cursor is older than the
+     * purged tombstones, only resync=true comes back and the client starts over without a cursor.
+     *
+     * Scoped to one project. A per-user scope is not offered: a task leaves a user's scope without
+     * being deleted (reassigned, or its project's manager changed), and no tombstone records that.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getTaskChanges(Long projectId, String since, Integer limit) {
+        if (projectId == null) {
+            throw new RuntimeException("projectId is required");
+        }
+        projectService.getProjectById(projectId)
+                .orElseThrow(() -> new RuntimeException("Project not found"));
+        int pageSize = pageSizeOf(limit);
+        // Read first: every change numbered up to here is already visible to the queries below
+        long committedSeq = taskChangeService.getLastSequence();
+
+        boolean fullSync = since == null || since.isBlank();
+        long afterSeq = -1;
+        long afterId = 0;
+        if (!fullSync) {
+            String[] position = decodeCursor(since, 2);
+            afterSeq = cursorId(position[0]);
+            afterId = cursorId(position[1]);
+            if (afterSeq < taskChangeService.getPurgedThrough()) {
+                Map<String, Object> resync = new HashMap<>();
+                resync.put("resync", true);
+                resync.put("changes", List.of());
+                resync.put("deleted", List.of());
+                resync.put("nextCursor", null);
+                resync.put("hasMore", false);
+                return resync;
+            }
+        }
+
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+        List<TaskListRow> rows = taskRepository.findChangesByProjectId(projectId, afterSeq, afterId, window);
+        List<TaskTombstone> tombstones = fullSync ? List.of()
+                : taskTombstoneRepository.findPageByProjectId(projectId, afterSeq, afterId, window);
+
+        // Merge both in (changeSeq, id) order up to the page size
+        List<TaskListRow> changed = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        int r = 0;
+        int d = 0;
+        while (changed.size() + deleted.size() < pageSize && (r < rows.size() || d < tombstones.size())) {
+            boolean nextIsRow = d == tombstones.size() || (r < rows.size()
+                    && compareChange(rows.get(r).changeSeq(), rows.get(r).id(),
+                                     tombstones.get(d).getChangeSeq(), tombstones.get(d).getTaskId()) < 0);
+            if (nextIsRow) {
+                TaskListRow row = rows.get(r++);
+                changed.add(row);
+                afterSeq = row.changeSeq();
+                afterId = row.id();
+            } else {
+                TaskTombstone tombstone = tombstones.get(d++);
+                deleted.add(tombstone.getTaskId());
+                afterSeq = tombstone.getChangeSeq();
+                afterId = tombstone.getTaskId();
+            }
+        }
+        boolean hasMore = r < rows.size() || d < tombstones.size();
+        if (!hasMore && committedSeq >= afterSeq) {
+            // Caught up: resume after everything committed so far
+            afterSeq = committedSeq;
+            afterId = Long.MAX_VALUE;
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("resync", false);
+        result.put("changes", convertRowsToDTOs(changed));
+        result.put("deleted", deleted);
+        result.put("nextCursor", encodeCursor(afterSeq + ":" + afterId));
+        result.put("hasMore", hasMore);
+        return result;
+    }
+
+    private int compareChange(long seq, long id, long otherSeq, long otherId) {
+        return seq != otherSeq ? Long.compare(seq, otherSeq) : Long.compare(id, otherId);
+    }
+
+    private Map<String, Object> pageOf(List<TaskListRow> rows, String nextCursor) {
+        Map<String, Object> page = new HashMap<>();
+        page.put("items", convertRowsToDTOs(rows));
+        page.put("nextCursor", nextCursor);
+        return page;
+    }
+
+    private int pageSizeOf(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private TaskStatus statusOf(String status) {
+        return status == null || status.isBlank() ? null : TaskStatus.fromValue(status);
+    }
+
+    private TaskPriority priorityOf(String priority) {
+        return priority == null || priority.isBlank() ? null : TaskPriority.fromValue(priority);
+    }
+
+    // Cursors are opaque to clients: base64url of the colon-separated keyset position
+    private String encodeCursor(String position) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor, int parts) {
+        try {
+            String[] values = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", -1);
+            if (values.length != parts) {
+                throw new IllegalArgumentException();
+            }
+            return values;
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    private long cursorId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    private boolean isSuperAdmin(User user) {
+        return user.getRoles() != null && user.getRoles().contains("SUPER_ADMIN");
     }
 
+    /**
+     * expectedVersion is the If-Match precondition: the version the client last read, or null to
+     * update unconditionally. A mismatch, or a concurrent write before commit, throws
+     * ObjectOptimisticLockingFailureException.
+     */
     @Transactional
-    public TaskDTO updateTask(Long id, UpdateTaskRequest request) {
+    public TaskDTO updateTask(Long id, UpdateTaskRequest request, Long expectedVersion) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Task not found"));
+        checkVersion(task, expectedVersion);
+        ProjectTaskStatsService.Contribution before = projectTaskStatsService.contributionOf(task);
 
         if (request.getTitle() != null) {
             task.setTitle(request.getTitle());
@@ -174,10 +444,10 @@ public class TaskService {
             task.setDescription(request.getDescription());
         }
         if (request.getStatus() != null) {
-            task.setStatus(request.getStatus());
+            task.setStatus(TaskStatus.fromValue(request.getStatus()));
         }
         if (request.getPriority() != null) {
-            task.setPriority(request.getPriority());
+            task.setPriority(TaskPriority.fromValue(request.getPriority()));
         }
         if (request.getDueDate() != null) {
             task.setDueDate(request.getDueDate());
@@ -189,7 +459,7 @@ public class TaskService {
             task.setActualHours(request.getActualHours());
         }
         if (request.getOrderIndex() != null) {
-            task.setOrderIndex(request.getOrderIndex());
+            moveToPosition(task, request.getOrderIndex());
         }
         if (request.getAssignedToId() != null) {
             User assignee = userRepository.findById(request.getAssignedToId())
@@ -198,26 +468,42 @@ public class TaskService {
         }
 
         task.setUpdatedAt(OffsetDateTime.now());
-        Task savedTask = taskRepository.save(task);
+        // Flushed now so the returned DTO carries the new version
+        Task savedTask = taskRepository.saveAndFlush(task);
+        taskChangeService.recordChanged(savedTask);
+        projectTaskStatsService.recordChanged(before, savedTask);
+        activityService.recordTaskActivity(savedTask, ActivityService.ACTION_UPDATED, null);
+        invalidateDashboards(savedTask);
         return convertToDTO(savedTask);
     }
 
     @Transactional
-    public TaskDTO updateTaskStatus(Long id, String status) {
+    public TaskDTO updateTaskStatus(Long id, String status, Long expectedVersion) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Task not found"));
-        
-        String oldStatus = task.getStatus();
-        task.setStatus(status);
+        checkVersion(task, expectedVersion);
+
+        TaskStatus oldStatus = task.getStatus();
+        TaskStatus newStatus = TaskStatus.fromValue(status);
+        ProjectTaskStatsService.Contribution before = projectTaskStatsService.contributionOf(task);
+        task.setStatus(newStatus);
         task.setUpdatedAt(OffsetDateTime.now());
-        Task savedTask = taskRepository.save(task);
+        Task savedTask = taskRepository.saveAndFlush(task);
+        taskChangeService.recordChanged(savedTask);
+        projectTaskStatsService.recordChanged(before, savedTask);
+
+        boolean completed = newStatus == TaskStatus.DONE && oldStatus != TaskStatus.DONE;
+        activityService.recordTaskActivity(savedTask,
+                completed ? ActivityService.ACTION_COMPLETED : ActivityService.ACTION_UPDATED, null);
+        invalidateDashboards(savedTask);
 
         // Trigger TASK_COMPLETED notification when status changes to 'done'
-        if ("done".equalsIgnoreCase(status) && !"done".equalsIgnoreCase(oldStatus)) {
+        if (completed) {
             // Notify Project Manager
             if (savedTask.getProject() != null && savedTask.getProject().getProjectManager() != null) {
                 notificationService.createNotification(
                     savedTask.getProject().getProjectManager(),
+                    savedTask.getProject().getOrganization().getId(),
                     NotificationService.EVENT_TASK_COMPLETED,
                     "Task completed",
                     "'" + savedTask.getTitle() + "' has been completed",
@@ -230,11 +516,84 @@ public class TaskService {
         return convertToDTO(savedTask);
     }
 
+    /**
+     * Moves a task on the board between previousTaskId and nextTaskId (its new neighbours in the
+     * column; null at either end), optionally into another status column. Only the moved task's
+     * row is written.
+     */
     @Transactional
-    public TaskDTO assignTask(Long id, Long userId) {
+    public TaskDTO moveTask(Long id, Long previousTaskId, Long nextTaskId, String status, Long expectedVersion) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Task not found"));
-        
+        checkVersion(task, expectedVersion);
+        Task previous = neighbourOf(task, previousTaskId);
+        Task next = neighbourOf(task, nextTaskId);
+
+        taskRankService.move(task, previous, next);
+        if (status != null && TaskStatus.fromValue(status) != task.getStatus()) {
+            return updateTaskStatus(id, status, null);
+        }
+        task.setUpdatedAt(OffsetDateTime.now());
+        taskChangeService.recordChanged(task);
+        return convertToDTO(taskRepository.saveAndFlush(task));
+    }
+
+    // Board order is the rank; a legacy orderIndex update ranks the task between the tasks now at
+    // position - 1 and position
+    private void moveToPosition(Task task, int position) {
+        List<Long> others = taskRepository.findBoardOrderIdsExcept(task.getProject().getId(), task.getId());
+        int index = Math.max(0, Math.min(position, others.size()));
+        Task previous = index > 0 ? taskRepository.findById(others.get(index - 1)).orElse(null) : null;
+        Task next = index < others.size() ? taskRepository.findById(others.get(index)).orElse(null) : null;
+        taskRankService.move(task, previous, next);
+    }
+
+    private Task neighbourOf(Task task, Long neighbourId) {
+        if (neighbourId == null) {
+            return null;
+        }
+        if (neighbourId.equals(task.getId())) {
+            throw new RuntimeException("A task cannot be moved next to itself");
+        }
+        Task neighbour = taskRepository.findById(neighbourId)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+        if (!neighbour.getProject().getId().equals(task.getProject().getId())) {
+            throw new RuntimeException("Tasks must belong to the same project");
+        }
+        return neighbour;
+    }
+
+    /**
+     * Nests the task under parentTaskId, or makes it a top-level task when null. Its own subtasks
+     * move along with it.
+     */
+    @Transactional
+    public TaskDTO setParentTask(Long id, Long parentTaskId, Long expectedVersion) {
+        Task task = taskRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+        checkVersion(task, expectedVersion);
+        Task parent = null;
+        if (parentTaskId != null) {
+            parent = taskRepository.findById(parentTaskId)
+                    .orElseThrow(() -> new RuntimeException("Parent task not found"));
+        }
+        taskHierarchyService.checkParent(task, parent);
+
+        task.setParentTask(parent);
+        task.setUpdatedAt(OffsetDateTime.now());
+        Task savedTask = taskRepository.saveAndFlush(task);
+        taskChangeService.recordChanged(savedTask);
+        activityService.recordTaskActivity(savedTask, ActivityService.ACTION_UPDATED, null);
+        invalidateDashboards(savedTask);
+        return convertToDTO(savedTask);
+    }
+
+    @Transactional
+    public TaskDTO assignTask(Long id, Long userId, Long expectedVersion) {
+        Task task = taskRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+        checkVersion(task, expectedVersion);
+
         if (userId != null) {
             User assignee = userRepository.findById(userId)
                     .orElseThrow(() -> new RuntimeException("User not found"));
@@ -244,29 +603,260 @@ public class TaskService {
         }
         
         task.setUpdatedAt(OffsetDateTime.now());
-        Task savedTask = taskRepository.save(task);
+        Task savedTask = taskRepository.saveAndFlush(task);
+        taskChangeService.recordChanged(savedTask);
+        activityService.recordTaskActivity(savedTask, ActivityService.ACTION_UPDATED, null);
+        invalidateDashboards(savedTask);
         return convertToDTO(savedTask);
     }
 
     @Transactional
-    public void deleteTask(Long id) {
-        if (!taskRepository.existsById(id)) {
+    public void deleteTask(Long id, Long expectedVersion) {
+        Task task = taskRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+        checkVersion(task, expectedVersion);
+        // Subtasks of a deleted task become top-level tasks
+        taskChangeService.recordChangedIds(taskRepository.findIdsByParentTaskIdIn(List.of(id)));
+        taskRepository.clearParentTask(List.of(id));
+        taskRepository.delete(task);
+        taskChangeService.recordDeleted(task);
+        projectTaskStatsService.recordDeleted(task);
+        activityService.recordTaskActivity(task, ActivityService.ACTION_DELETED, null);
+        invalidateDashboards(task);
+    }
+
+    private void checkVersion(Task task, Long expectedVersion) {
+        if (expectedVersion != null && expectedVersion != task.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(Task.class, task.getId());
+        }
+    }
+
+    // ===================== Bulk Operations =====================
+
+    /**
+     * Sets the status of many tasks in one transaction. The rows are flushed as JDBC batches,
+     * counters get one delta per project, and activity and completion notifications are
+     * coalesced to one per project.
+     */
+    @Transactional
+    public int bulkUpdateStatus(List<Long> taskIds, String status, User currentUser) {
+        TaskStatus newStatus = TaskStatus.fromValue(status);
+        List<Task> tasks = loadForBulk(taskIds);
+
+        OffsetDateTime now = OffsetDateTime.now();
+        List<ProjectTaskStatsService.Contribution> before = new ArrayList<>();
+        Map<Long, Integer> completedByProject = new LinkedHashMap<>();
+        Map<Long, Integer> updatedByProject = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            before.add(projectTaskStatsService.contributionOf(task));
+            if (newStatus == TaskStatus.DONE && task.getStatus() != TaskStatus.DONE) {
+                completedByProject.merge(task.getProject().getId(), 1, Integer::sum);
+            } else {
+                updatedByProject.merge(task.getProject().getId(), 1, Integer::sum);
+            }
+            task.setStatus(newStatus);
+            task.setUpdatedAt(now);
+        }
+        taskRepository.saveAll(tasks);
+        taskChangeService.recordChangedAll(tasks);
+        projectTaskStatsService.recordChangedAll(before, tasks);
+
+        Map<Long, Project> projects = projectsOf(tasks);
+        completedByProject.forEach((projectId, count) -> activityService.recordBulkTaskActivity(
+                projects.get(projectId), ActivityService.ACTION_COMPLETED, count, currentUser));
+        updatedByProject.forEach((projectId, count) -> activityService.recordBulkTaskActivity(
+                projects.get(projectId), ActivityService.ACTION_UPDATED, count, currentUser));
+        invalidateDashboards(tasks);
+
+        // One TASK_COMPLETED notification per project manager and project
+        completedByProject.forEach((projectId, count) -> {
+            Project project = projects.get(projectId);
+            if (project.getProjectManager() != null) {
+                notificationService.createNotification(
+                    project.getProjectManager(),
+                    project.getOrganization().getId(),
+                    NotificationService.EVENT_TASK_COMPLETED,
+                    "Tasks completed",
+                    count + (count == 1 ? " task has" : " tasks have") + " been completed in '" + project.getName() + "'",
+                    "PROJECT",
+                    project.getId()
+                );
+            }
+        });
+
+        return tasks.size();
+    }
+
+    @Transactional
+    public int bulkAssign(List<Long> taskIds, Long userId, User currentUser) {
+        User assignee = null;
+        if (userId != null) {
+            assignee = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+        }
+        List<Task> tasks = loadForBulk(taskIds);
+
+        // Previous assignees lose tasks, so their dashboards are invalidated as well
+        invalidateDashboards(tasks);
+        OffsetDateTime now = OffsetDateTime.now();
+        for (Task task : tasks) {
+            task.setAssignedTo(assignee);
+            task.setUpdatedAt(now);
+        }
+        taskRepository.saveAll(tasks);
+        taskChangeService.recordChangedAll(tasks);
+
+        recordBulkActivity(tasks, ActivityService.ACTION_UPDATED, currentUser);
+        if (assignee != null) {
+            dashboardCache.invalidateUser(assignee.getId());
+        }
+        return tasks.size();
+    }
+
+    /**
+     * Deletes many tasks with set-based statements: their comments, the parent links of their
+     * subtasks and the tasks themselves.
+     */
+    @Transactional
+    public int bulkDelete(List<Long> taskIds, User currentUser) {
+        List<Task> tasks = loadForBulk(taskIds);
+        List<Long> ids = tasks.stream().map(Task::getId).collect(Collectors.toList());
+
+        taskCommentRepository.deleteByTaskIdIn(ids);
+        taskChangeService.recordChangedIds(taskRepository.findIdsByParentTaskIdIn(ids));
+        taskRepository.clearParentTask(ids);
+        taskRepository.deleteAllByIdIn(ids);
+        taskChangeService.recordDeletedAll(tasks);
+        projectTaskStatsService.recordDeletedAll(tasks);
+
+        recordBulkActivity(tasks, ActivityService.ACTION_DELETED, currentUser);
+        invalidateDashboards(tasks);
+        return tasks.size();
+    }
+
+    /**
+     * Puts the tasks in the order they are listed by swapping the board ranks they already hold,
+     * so tasks that are not listed keep their positions.
+     */
+    @Transactional
+    public int bulkReorder(List<Long> taskIds) {
+        List<Task> tasks = loadForBulk(taskIds);
+        if (projectsOf(tasks).size() > 1) {
+            throw new RuntimeException("Tasks to reorder must belong to the same project");
+        }
+        Map<Long, Task> byId = tasks.stream().collect(Collectors.toMap(Task::getId, t -> t));
+        List<Task> ordered = taskIds.stream().map(byId::get).collect(Collectors.toList());
+        taskRankService.reorder(tasks.get(0).getProject().getId(), ordered);
+
+        OffsetDateTime now = OffsetDateTime.now();
+        tasks.forEach(task -> task.setUpdatedAt(now));
+        taskRepository.saveAll(tasks);
+        taskChangeService.recordChangedAll(tasks);
+        invalidateDashboards(tasks);
+        return tasks.size();
+    }
+
+    private List<Task> loadForBulk(List<Long> taskIds) {
+        if (taskIds == null || taskIds.isEmpty()) {
+            throw new RuntimeException("No tasks selected");
+        }
+        if (taskIds.size() > MAX_BULK_TASKS) {
+            throw new RuntimeException("At most " + MAX_BULK_TASKS + " tasks can be changed at once");
+        }
+        if (new HashSet<>(taskIds).size() != taskIds.size()) {
+            throw new RuntimeException("Duplicate task ids");
+        }
+        List<Task> tasks = taskRepository.findAllForBulkUpdate(taskIds);
+        if (tasks.size() != taskIds.size()) {
             throw new RuntimeException("Task not found");
         }
-        taskRepository.deleteById(id);
+        return tasks;
+    }
+
+    private Map<Long, Project> projectsOf(List<Task> tasks) {
+        Map<Long, Project> projects = new LinkedHashMap<>();
+        tasks.forEach(task -> projects.putIfAbsent(task.getProject().getId(), task.getProject()));
+        return projects;
+    }
+
+    private void recordBulkActivity(List<Task> tasks, String action, User actor) {
+        Map<Long, Integer> counts = new LinkedHashMap<>();
+        tasks.forEach(task -> counts.merge(task.getProject().getId(), 1, Integer::sum));
+        Map<Long, Project> projects = projectsOf(tasks);
+        counts.forEach((projectId, count) ->
+                activityService.recordBulkTaskActivity(projects.get(projectId), action, count, actor));
+    }
+
+    private void invalidateDashboards(List<Task> tasks) {
+        Set<Long> organizationIds = new HashSet<>();
+        Set<Long> assigneeIds = new HashSet<>();
+        for (Task task : tasks) {
+            organizationIds.add(task.getProject().getOrganization().getId());
+            if (task.getAssignedTo() != null) {
+                assigneeIds.add(task.getAssignedTo().getId());
+            }
+        }
+        organizationIds.forEach(dashboardCache::invalidateOrganization);
+        assigneeIds.forEach(dashboardCache::invalidateUser);
+    }
+
+    // The assignee's dashboard may now reach an organization outside its cached scope
+    private void invalidateDashboards(Task task) {
+        dashboardCache.invalidateOrganization(task.getProject().getOrganization().getId());
+        if (task.getAssignedTo() != null) {
+            dashboardCache.invalidateUser(task.getAssignedTo().getId());
+        }
     }
 
     public TaskDTO convertToDTO(Task task) {
+        return convertToDTO(task, taskCommentRepository.countByTaskId(task.getId()));
+    }
+
+    /**
+     * Converts projected list rows; they already carry everything the DTO needs.
+     */
+    private List<TaskDTO> convertRowsToDTOs(List<TaskListRow> rows) {
+        return rows.stream()
+                .map(row -> TaskDTO.builder()
+                        .id(row.id())
+                        .title(row.title())
+                        .description(row.description())
+                        .status(row.status().getValue())
+                        .priority(row.priority().getValue())
+                        .dueDate(row.dueDate())
+                        .estimatedHours(row.estimatedHours())
+                        .actualHours(row.actualHours())
+                        .orderIndex(row.orderIndex())
+                        .rank(row.rank())
+                        .version(row.version())
+                        .projectId(row.projectId())
+                        .projectName(row.projectName())
+                        .assignedToId(row.assignedToId())
+                        .assignedToName(row.assignedToId() != null ? row.assignedToFirstName() + " " + row.assignedToLastName() : null)
+                        .assignedToEmail(row.assignedToEmail())
+                        .createdById(row.createdById())
+                        .createdByName(row.createdById() != null ? row.createdByFirstName() + " " + row.createdByLastName() : null)
+                        .parentTaskId(row.parentTaskId())
+                        .commentCount(row.commentCount())
+                        .createdAt(row.createdAt())
+                        .updatedAt(row.updatedAt())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private TaskDTO convertToDTO(Task task, long commentCount) {
         TaskDTO dto = TaskDTO.builder()
                 .id(task.getId())
                 .title(task.getTitle())
                 .description(task.getDescription())
-                .status(task.getStatus())
-                .priority(task.getPriority())
+                .status(task.getStatus().getValue())
+                .priority(task.getPriority().getValue())
                 .dueDate(task.getDueDate())
                 .estimatedHours(task.getEstimatedHours())
                 .actualHours(task.getActualHours())
                 .orderIndex(task.getOrderIndex())
+                .rank(task.getRank())
+                .version(task.getVersion())
                 .createdAt(task.getCreatedAt())
                 .updatedAt(task.getUpdatedAt())
                 .build();
@@ -295,8 +885,7 @@ public class TaskService {
             dto.setParentTaskId(task.getParentTask().getId());
         }
 
-        // Comment count
-        dto.setCommentCount(taskCommentRepository.countByTaskId(task.getId()));
+        dto.setCommentCount(commentCount);
 
         return dto;
     }
@@ -31,6 +31,7 @@ public class TeamService {
     private final PasswordEncoder passwordEncoder;
     private final ProjectRepository projectRepository;
     private final ProjectService projectService;
+    private final DashboardCache dashboardCache;
 
     @Autowired
     public TeamService(
@@ -40,7 +41,8 @@ public class TeamService {
             OrganizationService organizationService,
             PasswordEncoder passwordEncoder,
             ProjectRepository projectRepository,
-            ProjectService projectService) {
+            ProjectService projectService,
+            DashboardCache dashboardCache) {
         this.userRepository = userRepository;
         this.organizationRepository = organizationRepository;
         this.organizationMemberRepository = organizationMemberRepository;
@@ -48,6 +50,7 @@ public class TeamService {
         this.passwordEncoder = passwordEncoder;
         this.projectRepository = projectRepository;
         this.projectService = projectService;
+        this.dashboardCache = dashboardCache;
     }
 
     /**
@@ -121,6 +124,7 @@ public class TeamService {
                 .build();
 
         organizationMemberRepository.save(member);
+        dashboardCache.invalidateOrganization(organizationId);
 
         // If the new user is a client and a projectId is provided, attach them to that project
         if ("CLIENT".equalsIgnoreCase(request.getRole()) && request.getProjectId() != null) {
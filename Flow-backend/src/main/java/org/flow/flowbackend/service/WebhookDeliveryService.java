@@ -0,0 +1,167 @@
+package org.flow.flowbackend.service;
+
+import org.flow.flowbackend.model.User;
+import org.flow.flowbackend.model.WebhookConfig;
+import org.flow.flowbackend.model.WebhookDelivery;
+import org.flow.flowbackend.repository.WebhookConfigRepository;
+import org.flow.flowbackend.repository.WebhookDeliveryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Webhook outbox: turns notification events into delivery rows for every subscribed endpoint, in
+ * the caller's transaction, and manages them afterwards. Endpoints come from {@link WebhookRouter};
+ * sending is left to {@link WebhookDispatcher}.
+ */
+@Service
+public class WebhookDeliveryService {
+
+    private static final int MAX_LIST_SIZE = 200;
+
+    private final WebhookConfigRepository webhookConfigRepository;
+    private final WebhookDeliveryRepository webhookDeliveryRepository;
+    private final WebhookDispatcher webhookDispatcher;
+    private final WebhookRouter webhookRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final long deliveredRetentionDays;
+    private final long deadRetentionDays;
+
+    @Autowired
+    public WebhookDeliveryService(WebhookConfigRepository webhookConfigRepository,
+                                  WebhookDeliveryRepository webhookDeliveryRepository,
+                                  WebhookDispatcher webhookDispatcher,
+                                  WebhookRouter webhookRouter,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.webhooks.delivered-retention-days:7}") long deliveredRetentionDays,
+                                  @Value("${app.webhooks.dead-retention-days:30}") long deadRetentionDays) {
+        this.webhookConfigRepository = webhookConfigRepository;
+        this.webhookDeliveryRepository = webhookDeliveryRepository;
+        this.webhookDispatcher = webhookDispatcher;
+        this.webhookRouter = webhookRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.deliveredRetentionDays = deliveredRetentionDays;
+        this.deadRetentionDays = deadRetentionDays;
+    }
+
+    // ===================== Enqueue =====================
+
+    /**
+     * Queues the event for every active webhook of the organization subscribed to its type and the
+     * user's roles. The rows commit or roll back with the change that raised the event; nothing is
+     * sent from here. For a batched webhook the row joins the open batch and is due with it.
+     */
+    @Transactional
+    public void enqueue(User user, Long organizationId, String eventType, String title, String message,
+                        String relatedEntityType, Long relatedEntityId) {
+        if (organizationId == null) {
+            return;
+        }
+        List<WebhookRouter.Route> routes = webhookRouter.routes(organizationId, eventType, user.getRoles());
+        if (routes.isEmpty()) {
+            return;
+        }
+
+        OffsetDateTime now = OffsetDateTime.now();
+        String payload = WebhookPayloads.event(eventType, title, message, user.getEmail(), relatedEntityType, relatedEntityId, now);
+        List<WebhookDelivery> deliveries = new ArrayList<>();
+        for (WebhookRouter.Route route : routes) {
+            deliveries.add(WebhookDelivery.builder()
+                    .webhookConfigId(route.webhookConfigId())
+                    .organizationId(route.organizationId())
+                    .webhookUrl(route.webhookUrl())
+                    .eventType(eventType)
+                    .payload(payload)
+                    .status(WebhookDelivery.STATUS_PENDING)
+                    .attempts(0)
+                    .nextAttemptAt(route.batched() ? batchSendAt(route, now) : now)
+                    .createdAt(now)
+                    .build());
+        }
+        webhookDeliveryRepository.saveAll(deliveries);
+        webhookDispatcher.wakeUpAfterCommit();
+    }
+
+    /**
+     * When a new event for a batched webhook is due: with the batch already buffered, or one window
+     * from now when it opens a batch; right away once it fills the batch up.
+     */
+    private OffsetDateTime batchSendAt(WebhookRouter.Route route, OffsetDateTime now) {
+        WebhookDeliveryRepository.BatchBuffer buffer =
+                webhookDeliveryRepository.findBatchBuffer(route.webhookConfigId(), route.webhookUrl());
+        if (buffer.getSize() + 1 >= route.batchMaxSize()) {
+            return now;
+        }
+        return buffer.getSendAt() != null ? buffer.getSendAt() : now.plus(Duration.ofMillis(route.batchWindowMs()));
+    }
+
+    // ===================== Inspection and Retry =====================
+
+    /**
+     * Latest deliveries of an organization, newest first; status narrows to e.g. dead-lettered ones.
+     */
+    public List<WebhookDelivery> getDeliveries(Long organizationId, String status, Integer limit) {
+        int size = limit != null ? Math.max(1, Math.min(limit, MAX_LIST_SIZE)) : 50;
+        return webhookDeliveryRepository.findRecentByOrganizationId(organizationId, status, PageRequest.of(0, size));
+    }
+
+    /**
+     * Puts a dead-lettered delivery back in the queue with a fresh set of attempts, sent to the
+     * webhook's current URL in case that was what got fixed.
+     */
+    @Transactional
+    public WebhookDelivery retryDelivery(Long id) {
+        WebhookDelivery delivery = webhookDeliveryRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Webhook delivery not found"));
+        if (!WebhookDelivery.STATUS_DEAD.equals(delivery.getStatus())) {
+            throw new RuntimeException("Only dead-lettered deliveries can be retried");
+        }
+        WebhookConfig config = webhookConfigRepository.findById(delivery.getWebhookConfigId())
+                .filter(WebhookConfig::isActive)
+                .orElseThrow(() -> new RuntimeException("Webhook is no longer active"));
+        delivery.setWebhookUrl(config.getWebhookUrl());
+        delivery.setStatus(WebhookDelivery.STATUS_PENDING);
+        delivery.setAttempts(0);
+        delivery.setNextAttemptAt(OffsetDateTime.now());
+        delivery.setCompletedAt(null);
+        WebhookDelivery saved = webhookDeliveryRepository.save(delivery);
+        webhookDispatcher.wakeUpAfterCommit();
+        return saved;
+    }
+
+    /**
+     * Circuit breaker state, latency and error rate per webhook URL, as seen by this instance.
+     */
+    public List<Map<String, Object>> getEndpointMetrics() {
+        return webhookDispatcher.getEndpointMetrics();
+    }
+
+    // ===================== Maintenance =====================
+
+    @Scheduled(cron = "${app.webhooks.purge-cron:0 45 3 * * *}")
+    public void purgeCompleted() {
+        try {
+            Integer purged = transactionTemplate.execute(status -> {
+                OffsetDateTime now = OffsetDateTime.now();
+                return webhookDeliveryRepository.deleteCompletedBefore(WebhookDelivery.STATUS_DELIVERED, now.minusDays(deliveredRetentionDays))
+                        + webhookDeliveryRepository.deleteCompletedBefore(WebhookDelivery.STATUS_DEAD, now.minusDays(deadRetentionDays));
+            });
+            if (purged != null && purged > 0) {
+                System.out.println("Webhook deliveries purged: " + purged);
+            }
+        } catch (Exception e) {
+            System.err.println("Webhook delivery purge failed: " + e.getMessage());
+        }
+    }
+}
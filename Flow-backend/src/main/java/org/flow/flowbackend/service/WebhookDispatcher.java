@@ -0,0 +1,498 @@
+package org.flow.flowbackend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.flow.flowbackend.model.WebhookDelivery;
+import org.flow.flowbackend.repository.WebhookDeliveryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the webhook outbox with a bounded pool of workers. Each due delivery is claimed with a
+ * lease, sent, and then marked delivered, rescheduled with exponential backoff, or dead-lettered
+ * once it has used up its attempts. Each URL gets its own {@link WebhookEndpoint}: a client with
+ * connect and request timeouts, at most max-per-endpoint requests in flight so a slow receiver only
+ * ties up its own share of the pool, and a circuit breaker that stops sending to a failing URL
+ * until a probe gets through.
+ *
+ * Webhooks in batched mode get their buffered events as one JSON array per request, and webhooks
+ * with a request quota are held to it by a token bucket per URL; deliveries over the quota are
+ * pushed back rather than polled again, as are deliveries to an open circuit or to an endpoint
+ * with every in-flight slot taken, so one slow URL cannot fill every poll with its own rows.
+ * Quotas and breakers are per instance.
+ *
+ * Only active webhooks with a secret key are sent to, and every request is signed. Deliveries
+ * still queued for a webhook that was deactivated or removed are dead-lettered unsent.
+ *
+ * Delivery is at least once: a worker that dies mid-send leaves its lease to expire and the row is
+ * sent again. Receivers can deduplicate on the X-Flow-Delivery header.
+ */
+@Service
+public class WebhookDispatcher {
+
+    private static final int CLAIM_BATCH_SIZE = 100;
+    private static final int MAX_ERROR_LENGTH = 500;
+    // Extra lease time on top of the request timeout before another worker may take the row over
+    private static final Duration LEASE_MARGIN = Duration.ofSeconds(60);
+    // How often a delivery for a webhook missing from the routing index may trigger a reload
+    private static final Duration UNKNOWN_ROUTE_REFRESH = Duration.ofSeconds(5);
+    // How long deliveries wait while their endpoint has every in-flight slot taken
+    private static final Duration BUSY_ENDPOINT_WAIT = Duration.ofSeconds(1);
+    // Endpoints unused for this long are dropped along with their connections
+    private static final Duration ENDPOINT_IDLE_TIMEOUT = Duration.ofMinutes(10);
+
+    private final WebhookDeliveryRepository webhookDeliveryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor workers;
+    private final ExecutorService poller;
+    private final AtomicBoolean wakeUpQueued = new AtomicBoolean();
+    private final Map<String, WebhookEndpoint> endpoints = new ConcurrentHashMap<>();
+    // Only touched from the poller thread
+    private final Map<String, RateLimiter> endpointLimits = new HashMap<>();
+    private final WebhookRouter webhookRouter;
+    private final int maxPerEndpoint;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration requestTimeout;
+    private final Duration connectTimeout;
+    private final int breakerFailureThreshold;
+    private final Duration breakerProbeInterval;
+    private long endpointsSweptAt = System.nanoTime();
+
+    @Autowired
+    public WebhookDispatcher(WebhookDeliveryRepository webhookDeliveryRepository,
+                             WebhookRouter webhookRouter,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.webhooks.workers:4}") int workerCount,
+                             @Value("${app.webhooks.max-per-endpoint:2}") int maxPerEndpoint,
+                             @Value("${app.webhooks.max-attempts:10}") int maxAttempts,
+                             @Value("${app.webhooks.backoff-initial-ms:10000}") long initialBackoffMs,
+                             @Value("${app.webhooks.backoff-max-ms:3600000}") long maxBackoffMs,
+                             @Value("${app.webhooks.request-timeout-ms:10000}") long requestTimeoutMs,
+                             @Value("${app.webhooks.connect-timeout-ms:5000}") long connectTimeoutMs,
+                             @Value("${app.webhooks.breaker-failure-threshold:5}") int breakerFailureThreshold,
+                             @Value("${app.webhooks.breaker-probe-interval-ms:30000}") long breakerProbeIntervalMs) {
+        this.webhookDeliveryRepository = webhookDeliveryRepository;
+        this.webhookRouter = webhookRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workerCount * 4), daemonThreads("webhook-worker-"));
+        this.poller = Executors.newSingleThreadExecutor(daemonThreads("webhook-poller-"));
+        this.maxPerEndpoint = maxPerEndpoint;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofMillis(initialBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.connectTimeout = Duration.ofMillis(connectTimeoutMs);
+        this.breakerFailureThreshold = breakerFailureThreshold;
+        this.breakerProbeInterval = Duration.ofMillis(breakerProbeIntervalMs);
+    }
+
+    /**
+     * Polls for due deliveries as soon as the current transaction commits, instead of waiting for
+     * the next scheduled poll.
+     */
+    public void wakeUpAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeUp();
+                }
+            });
+        } else {
+            wakeUp();
+        }
+    }
+
+    private void wakeUp() {
+        if (wakeUpQueued.compareAndSet(false, true)) {
+            try {
+                poller.execute(() -> {
+                    wakeUpQueued.set(false);
+                    try {
+                        dispatchDue();
+                    } catch (Exception e) {
+                        System.err.println("Webhook dispatch failed: " + e.getMessage());
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                wakeUpQueued.set(false);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.webhooks.poll-delay-ms:1000}")
+    public void poll() {
+        wakeUp();
+    }
+
+    // Runs on the poller thread only, so claims never race within this instance
+    private void dispatchDue() {
+        sweepIdleEndpoints();
+        int handled;
+        do {
+            int capacity = workers.getQueue().remainingCapacity();
+            if (capacity == 0) {
+                return;
+            }
+            OffsetDateTime now = OffsetDateTime.now();
+            List<WebhookDelivery> due = webhookDeliveryRepository.findDue(now,
+                    PageRequest.of(0, Math.min(capacity, CLAIM_BATCH_SIZE)));
+            if (due.stream().anyMatch(d -> webhookRouter.route(d.getWebhookConfigId()) == null)) {
+                // Saved on another instance since our last refresh, or deactivated since it was queued
+                webhookRouter.refreshIfOlderThan(UNKNOWN_ROUTE_REFRESH);
+            }
+            List<Long> inactive = new ArrayList<>();
+            List<Long> unsigned = new ArrayList<>();
+            Map<String, List<Long>> deferred = new HashMap<>();
+            Map<String, OffsetDateTime> deferredUntil = new HashMap<>();
+            Set<Long> claimedIds = new HashSet<>();
+            handled = 0;
+            for (WebhookDelivery delivery : due) {
+                if (claimedIds.contains(delivery.getId())) {
+                    // Already went out with a batch claimed earlier in this pass
+                    handled++;
+                    continue;
+                }
+                WebhookRouter.Route route = webhookRouter.route(delivery.getWebhookConfigId());
+                if (route == null && webhookRouter.isLoadedAfter(delivery.getCreatedAt())) {
+                    inactive.add(delivery.getId());
+                    continue;
+                }
+                if (route == null) {
+                    // Queued for a webhook saved since the index was loaded; retried once it is reloaded
+                    deferred.computeIfAbsent(delivery.getWebhookUrl(), url -> new ArrayList<>()).add(delivery.getId());
+                    deferredUntil.putIfAbsent(delivery.getWebhookUrl(), now.plus(UNKNOWN_ROUTE_REFRESH));
+                    continue;
+                }
+                if (route.secretKey() == null) {
+                    unsigned.add(delivery.getId());
+                    continue;
+                }
+                WebhookEndpoint endpoint = endpoint(delivery.getWebhookUrl());
+                RateLimiter limiter = rateLimiter(delivery.getWebhookUrl(), route);
+                long waitNanos = endpoint.blockedNanos();
+                if (waitNanos == 0 && endpoint.isBusy()) {
+                    waitNanos = BUSY_ENDPOINT_WAIT.toNanos();
+                }
+                if (waitNanos == 0 && limiter != null) {
+                    waitNanos = limiter.waitNanos();
+                }
+                if (waitNanos > 0) {
+                    deferred.computeIfAbsent(delivery.getWebhookUrl(), url -> new ArrayList<>()).add(delivery.getId());
+                    deferredUntil.putIfAbsent(delivery.getWebhookUrl(), now.plusNanos(waitNanos));
+                    continue;
+                }
+                List<WebhookDelivery> claimed = submit(delivery, route, endpoint, now);
+                if (!claimed.isEmpty()) {
+                    if (limiter != null) {
+                        limiter.take();
+                    }
+                    claimed.forEach(d -> claimedIds.add(d.getId()));
+                    handled++;
+                }
+            }
+            handled += deadLetter(inactive, now, "Webhook is no longer active");
+            handled += deadLetter(unsigned, now, "Webhook has no signing secret");
+            for (Map.Entry<String, List<Long>> entry : deferred.entrySet()) {
+                OffsetDateTime until = deferredUntil.get(entry.getKey());
+                handled += transactionTemplate.execute(status ->
+                        webhookDeliveryRepository.defer(entry.getValue(), now, until));
+            }
+            // A full batch may leave more rows due
+            if (due.size() < Math.min(capacity, CLAIM_BATCH_SIZE)) {
+                return;
+            }
+        } while (handled > 0);
+    }
+
+    private int deadLetter(List<Long> ids, OffsetDateTime now, String error) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        System.err.println("Webhook deliveries " + ids + " dead-lettered unsent: " + error);
+        return transactionTemplate.execute(status -> webhookDeliveryRepository.deadLetter(ids, now, error));
+    }
+
+    private WebhookEndpoint endpoint(String url) {
+        return endpoints.computeIfAbsent(url, key ->
+                new WebhookEndpoint(key, connectTimeout, maxPerEndpoint, breakerFailureThreshold, breakerProbeInterval));
+    }
+
+    // On the poller thread, so an endpoint is never dropped between being looked up and used
+    private void sweepIdleEndpoints() {
+        long now = System.nanoTime();
+        if (now - endpointsSweptAt < ENDPOINT_IDLE_TIMEOUT.toNanos()) {
+            return;
+        }
+        endpointsSweptAt = now;
+        long idleSince = now - ENDPOINT_IDLE_TIMEOUT.toNanos();
+        endpoints.values().removeIf(endpoint -> {
+            if (endpoint.isIdleSince(idleSince)) {
+                endpoint.close();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Breaker state, load, latency and error rate of every URL this instance has sent to lately.
+     */
+    public List<Map<String, Object>> getEndpointMetrics() {
+        return endpoints.values().stream()
+                .map(WebhookEndpoint::getMetrics)
+                .sorted(Comparator.comparing(metrics -> (String) metrics.get("url")))
+                .toList();
+    }
+
+    // Null when the webhook has no request quota
+    private RateLimiter rateLimiter(String url, WebhookRouter.Route route) {
+        int perMinute = route.maxRequestsPerMinute();
+        if (perMinute == 0) {
+            endpointLimits.remove(url);
+            return null;
+        }
+        RateLimiter limiter = endpointLimits.get(url);
+        if (limiter == null || limiter.perMinute != perMinute) {
+            limiter = new RateLimiter(perMinute);
+            endpointLimits.put(url, limiter);
+        }
+        return limiter;
+    }
+
+    /**
+     * Claims the delivery, or with a batched route its whole batch, and hands it to a worker.
+     * Returns what was claimed; empty when the rows were taken elsewhere or no worker was free.
+     */
+    private List<WebhookDelivery> submit(WebhookDelivery delivery, WebhookRouter.Route route,
+                                         WebhookEndpoint endpoint, OffsetDateTime now) {
+        if (!endpoint.tryAcquire()) {
+            return List.of();
+        }
+        boolean batched = route.batched();
+        OffsetDateTime leaseUntil = now.plus(requestTimeout).plus(LEASE_MARGIN);
+        List<WebhookDelivery> claimed = transactionTemplate.execute(status -> claim(delivery, batched ? route : null, now, leaseUntil));
+        if (claimed == null || claimed.isEmpty()) {
+            endpoint.release();
+            return List.of();
+        }
+        endpoint.started();
+        try {
+            workers.execute(() -> {
+                try {
+                    deliver(claimed, batched, route.secretKey(), endpoint);
+                } finally {
+                    endpoint.release();
+                }
+            });
+            return claimed;
+        } catch (RejectedExecutionException e) {
+            // The lease runs out and the rows are picked up again
+            endpoint.abandoned();
+            endpoint.release();
+            return List.of();
+        }
+    }
+
+    // The due delivery alone, or with a batched route everything buffered for its webhook
+    private List<WebhookDelivery> claim(WebhookDelivery delivery, WebhookRouter.Route batchRoute,
+                                        OffsetDateTime now, OffsetDateTime leaseUntil) {
+        if (batchRoute == null) {
+            return webhookDeliveryRepository.claim(delivery.getId(), now, leaseUntil) > 0 ? List.of(delivery) : List.of();
+        }
+        List<WebhookDelivery> claimed = new ArrayList<>();
+        for (WebhookDelivery candidate : webhookDeliveryRepository.findBatch(delivery.getWebhookConfigId(),
+                delivery.getWebhookUrl(), now, PageRequest.of(0, batchRoute.batchMaxSize()))) {
+            if (webhookDeliveryRepository.claimForBatch(candidate.getId(), now, leaseUntil) > 0) {
+                claimed.add(candidate);
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * Sends the deliveries in one request: a batch as a JSON array of their payloads, otherwise the
+     * single payload as is, signed with the webhook's secret key. The request timeout bounds the
+     * whole exchange, response included, so a receiver that stalls mid-response frees the worker.
+     */
+    private void deliver(List<WebhookDelivery> deliveries, boolean batched, String secretKey, WebhookEndpoint endpoint) {
+        WebhookDelivery first = deliveries.get(0);
+        String body = batched
+                ? deliveries.stream().map(WebhookDelivery::getPayload).collect(Collectors.joining(",", "[", "]"))
+                : first.getPayload();
+        Integer statusCode = null;
+        String error = null;
+        long startedAt = System.nanoTime();
+        try {
+            byte[] bodyBytes = body.getBytes(StandardCharsets.UTF_8);
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(first.getWebhookUrl()))
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .header("X-Flow-Event", deliveries.stream().map(WebhookDelivery::getEventType).distinct().collect(Collectors.joining(",")))
+                    .header("X-Flow-Delivery", deliveries.stream().map(d -> String.valueOf(d.getId())).collect(Collectors.joining(",")))
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(bodyBytes));
+            // Signed at send time, so a retried request carries a fresh timestamp
+            long timestamp = Instant.now().getEpochSecond();
+            request.header(WebhookSignatures.TIMESTAMP_HEADER, Long.toString(timestamp))
+                    .header(WebhookSignatures.SIGNATURE_HEADER, WebhookSignatures.sign(secretKey, timestamp, bodyBytes));
+            CompletableFuture<HttpResponse<Void>> response =
+                    endpoint.client().sendAsync(request.build(), HttpResponse.BodyHandlers.discarding());
+            try {
+                statusCode = response.get(requestTimeout.toMillis(), TimeUnit.MILLISECONDS).statusCode();
+            } finally {
+                // Aborts the exchange when it timed out or the worker was interrupted
+                response.cancel(true);
+            }
+            if (statusCode < 200 || statusCode >= 300) {
+                error = "HTTP " + statusCode;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = "Interrupted";
+        } catch (TimeoutException e) {
+            error = "Timed out after " + requestTimeout.toMillis() + " ms";
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            error = cause.getClass().getSimpleName() + (cause.getMessage() != null ? ": " + cause.getMessage() : "");
+        } catch (Exception e) {
+            error = e.getClass().getSimpleName() + (e.getMessage() != null ? ": " + e.getMessage() : "");
+        }
+        endpoint.record(WebhookEndpoint.isFailure(statusCode), System.nanoTime() - startedAt);
+
+        try {
+            recordAttempt(deliveries, statusCode, error);
+        } catch (Exception e) {
+            System.err.println("Webhook deliveries " + deliveries.stream().map(WebhookDelivery::getId).toList()
+                    + " could not be updated: " + e.getMessage());
+        }
+    }
+
+    // A failed batch is retried together, after one shared backoff
+    private void recordAttempt(List<WebhookDelivery> deliveries, Integer statusCode, String error) {
+        OffsetDateTime now = OffsetDateTime.now();
+        String lastError = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        int mostAttempts = deliveries.stream().mapToInt(WebhookDelivery::getAttempts).max().orElse(0) + 1;
+        OffsetDateTime retryAt = now.plus(backoff(mostAttempts));
+        for (WebhookDelivery delivery : deliveries) {
+            int attempts = delivery.getAttempts() + 1;
+            delivery.setAttempts(attempts);
+            delivery.setLastStatusCode(statusCode);
+            delivery.setLastError(lastError);
+            if (error == null) {
+                delivery.setStatus(WebhookDelivery.STATUS_DELIVERED);
+                delivery.setCompletedAt(now);
+            } else if (attempts >= maxAttempts) {
+                delivery.setStatus(WebhookDelivery.STATUS_DEAD);
+                delivery.setCompletedAt(now);
+                System.err.println("Webhook delivery " + delivery.getId() + " to " + delivery.getWebhookUrl()
+                        + " dead-lettered after " + attempts + " attempts: " + error);
+            } else {
+                delivery.setStatus(WebhookDelivery.STATUS_PENDING);
+                delivery.setNextAttemptAt(retryAt);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> webhookDeliveryRepository.saveAll(deliveries));
+    }
+
+    /**
+     * Delay before the next attempt: doubling from the initial backoff up to the maximum, with half
+     * of it random so deliveries that failed together do not retry together.
+     */
+    Duration backoff(int attempts) {
+        long delay = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempts - 1, 30));
+        long half = delay / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(delay - half + 1));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+        workers.shutdown();
+        try {
+            workers.awaitTermination(requestTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        endpoints.values().forEach(WebhookEndpoint::close);
+    }
+
+    /**
+     * Token bucket refilled at the webhook's per-minute quota. It holds at most one second's worth
+     * of requests, so a backlog drains at an even pace instead of bursting a minute's quota at once.
+     */
+    private static final class RateLimiter {
+        private final int perMinute;
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long refilledAt;
+
+        RateLimiter(int perMinute) {
+            this.perMinute = perMinute;
+            this.capacity = Math.max(1, perMinute / 60);
+            this.tokensPerNano = perMinute / (double) TimeUnit.MINUTES.toNanos(1);
+            this.tokens = capacity;
+            this.refilledAt = System.nanoTime();
+        }
+
+        // 0 when a token is available, else the nanos until one is
+        long waitNanos() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+
+        void take() {
+            tokens -= 1;
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,187 @@
+package org.flow.flowbackend.service;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * One webhook URL as the dispatcher sees it: its own HTTP client and connection pool, a cap on
+ * requests in flight, a circuit breaker, and latency and error figures over its latest requests.
+ *
+ * The breaker opens after failureThreshold failed requests in a row. While it is open nothing is
+ * sent and deliveries wait without using up attempts; once the probe interval has passed, a single
+ * request goes out as a probe and either closes the breaker or keeps it open for another interval.
+ * Timeouts, connection errors, 5xx, 408 and 429 count as failures. Other 4xx mean the receiver is
+ * up but rejected the event, so they do not.
+ */
+final class WebhookEndpoint {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    // Latest requests the latency and error rate figures are taken over
+    private static final int WINDOW_SIZE = 100;
+    // How long other deliveries wait while the probe is in flight
+    private static final long PROBE_PENDING_WAIT_NANOS = Duration.ofSeconds(1).toNanos();
+
+    private final String url;
+    private final HttpClient client;
+    private final Semaphore permits;
+    private final int maxInFlight;
+    private final int failureThreshold;
+    private final long probeIntervalNanos;
+
+    // Breaker state and figures, guarded by this
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openUntil;
+    private boolean probing;
+    private final long[] latencies = new long[WINDOW_SIZE];
+    private final boolean[] failed = new boolean[WINDOW_SIZE];
+    private long requests;
+    private long failures;
+    private long lastUsedAt = System.nanoTime();
+
+    WebhookEndpoint(String url, Duration connectTimeout, int maxInFlight, int failureThreshold, Duration probeInterval) {
+        this.url = url;
+        // HTTP/2 is negotiated over TLS and falls back to HTTP/1.1; plain http stays on HTTP/1.1
+        // rather than sending h2c upgrade headers receivers may not expect
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .version(url.regionMatches(true, 0, "https:", 0, 6) ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        this.permits = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.failureThreshold = failureThreshold;
+        this.probeIntervalNanos = probeInterval.toNanos();
+    }
+
+    HttpClient client() {
+        return client;
+    }
+
+    /**
+     * 0 when the breaker lets a request through now, otherwise the nanos until it may.
+     */
+    synchronized long blockedNanos() {
+        if (state == State.OPEN) {
+            long wait = openUntil - System.nanoTime();
+            if (wait > 0) {
+                return wait;
+            }
+            state = State.HALF_OPEN;
+            probing = false;
+        }
+        if (state == State.HALF_OPEN && probing) {
+            return PROBE_PENDING_WAIT_NANOS;
+        }
+        return 0;
+    }
+
+    /**
+     * Whether every in-flight slot is taken.
+     */
+    boolean isBusy() {
+        return permits.availablePermits() == 0;
+    }
+
+    /**
+     * Takes an in-flight slot; false when the endpoint is at its limit.
+     */
+    boolean tryAcquire() {
+        return permits.tryAcquire();
+    }
+
+    void release() {
+        permits.release();
+    }
+
+    /**
+     * Marks a request as sent. While half open it is the probe, and no other goes out until it
+     * has completed or was abandoned.
+     */
+    synchronized void started() {
+        lastUsedAt = System.nanoTime();
+        if (state == State.HALF_OPEN) {
+            probing = true;
+        }
+    }
+
+    // For a request marked started that never went out
+    synchronized void abandoned() {
+        probing = false;
+    }
+
+    synchronized void record(boolean failure, long latencyNanos) {
+        int slot = (int) (requests % WINDOW_SIZE);
+        latencies[slot] = latencyNanos;
+        failed[slot] = failure;
+        requests++;
+        probing = false;
+        if (!failure) {
+            if (state != State.CLOSED) {
+                System.out.println("Webhook endpoint " + url + " recovered, circuit closed");
+            }
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            return;
+        }
+        failures++;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            if (state == State.CLOSED) {
+                System.err.println("Webhook endpoint " + url + " failed " + consecutiveFailures + " times in a row, circuit opened");
+            }
+            state = State.OPEN;
+            openUntil = System.nanoTime() + probeIntervalNanos;
+        }
+    }
+
+    static boolean isFailure(Integer statusCode) {
+        return statusCode == null || statusCode >= 500 || statusCode == 408 || statusCode == 429;
+    }
+
+    /**
+     * Whether the endpoint has been unused since the given time, with nothing in flight and nothing
+     * to remember, so it can be dropped.
+     */
+    synchronized boolean isIdleSince(long nanoTime) {
+        return state == State.CLOSED && lastUsedAt - nanoTime < 0 && permits.availablePermits() == maxInFlight;
+    }
+
+    void close() {
+        client.shutdownNow();
+    }
+
+    synchronized Map<String, Object> getMetrics() {
+        int window = (int) Math.min(requests, WINDOW_SIZE);
+        long[] sorted = Arrays.copyOf(latencies, window);
+        Arrays.sort(sorted);
+        int windowFailures = 0;
+        long total = 0;
+        for (int i = 0; i < window; i++) {
+            total += latencies[i];
+            if (failed[i]) {
+                windowFailures++;
+            }
+        }
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("url", url);
+        metrics.put("state", state.name());
+        metrics.put("inFlight", maxInFlight - permits.availablePermits());
+        metrics.put("requests", requests);
+        metrics.put("failures", failures);
+        metrics.put("consecutiveFailures", consecutiveFailures);
+        metrics.put("recentRequests", window);
+        metrics.put("recentErrorRate", window > 0 ? (double) windowFailures / window : 0.0);
+        metrics.put("avgLatencyMs", window > 0 ? total / window / 1_000_000 : 0);
+        metrics.put("p50LatencyMs", window > 0 ? sorted[(window - 1) / 2] / 1_000_000 : 0);
+        metrics.put("p95LatencyMs", window > 0 ? sorted[(int) Math.ceil(window * 0.95) - 1] / 1_000_000 : 0);
+        metrics.put("maxLatencyMs", window > 0 ? sorted[window - 1] / 1_000_000 : 0);
+        return metrics;
+    }
+}
@@ -0,0 +1,57 @@
+package org.flow.flowbackend.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+
+/**
+ * Webhook event payloads, written field by field with Jackson's streaming generator into a
+ * per-thread buffer that is reused from one event to the next. The generator does the JSON
+ * escaping, control characters included.
+ */
+final class WebhookPayloads {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    // Buffers grown past this by an unusually large event are not kept for reuse
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+    private static final ThreadLocal<CharArrayWriter> BUFFERS = ThreadLocal.withInitial(() -> new CharArrayWriter(512));
+
+    private WebhookPayloads() {
+    }
+
+    /**
+     * One event as a JSON object; absent values are written as null.
+     */
+    static String event(String eventType, String title, String message, String userEmail,
+                        String relatedEntityType, Long relatedEntityId, OffsetDateTime timestamp) {
+        CharArrayWriter buffer = BUFFERS.get();
+        buffer.reset();
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(buffer)) {
+            json.writeStartObject();
+            json.writeStringField("eventType", eventType);
+            json.writeStringField("title", title);
+            json.writeStringField("message", message);
+            json.writeStringField("userEmail", userEmail);
+            json.writeStringField("relatedEntityType", relatedEntityType);
+            if (relatedEntityId != null) {
+                json.writeNumberField("relatedEntityId", relatedEntityId);
+            } else {
+                json.writeNullField("relatedEntityId");
+            }
+            json.writeStringField("timestamp", timestamp.toString());
+            json.writeEndObject();
+        } catch (IOException e) {
+            // Not expected when writing to memory
+            throw new UncheckedIOException(e);
+        }
+        String payload = buffer.toString();
+        if (buffer.size() > MAX_RETAINED_BUFFER) {
+            BUFFERS.remove();
+        }
+        return payload;
+    }
+}
@@ -0,0 +1,202 @@
+package org.flow.flowbackend.service;
+
+import org.flow.flowbackend.model.WebhookConfig;
+import org.flow.flowbackend.repository.WebhookConfigRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory index of active webhooks by (organization, event type), so routing an event touches
+ * only the webhooks of its own organization subscribed to its type instead of scanning every
+ * active webhook. Target roles are kept as sets, along with each webhook's batching and rate limit
+ * settings for the dispatcher.
+ *
+ * The index is an immutable snapshot swapped in whole: rebuilt after a config is saved here, and
+ * periodically to pick up changes saved by other instances.
+ */
+@Service
+public class WebhookRouter {
+
+    // Event type key for webhooks without an event type list, which receive every event
+    private static final String ALL_EVENTS = "*";
+    // Upper bound on the events sent in one batched request
+    static final int MAX_BATCH_SIZE = 100;
+    // Allowance for clocks of other instances running ahead of ours
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(2);
+
+    /**
+     * What the delivery path needs from a webhook config. batchWindowMs and maxRequestsPerMinute
+     * are 0 when off; batchMaxSize is 1 when the webhook is not batched; secretKey is null only for
+     * a config saved before secrets were generated, and such a webhook is not sent to.
+     */
+    public record Route(Long webhookConfigId, Long organizationId, String webhookUrl, Set<String> targetRoles,
+                        long batchWindowMs, int batchMaxSize, int maxRequestsPerMinute, String secretKey) {
+
+        // No target roles means every role
+        boolean targets(Collection<String> roles) {
+            return targetRoles.isEmpty() || (roles != null && roles.stream().anyMatch(targetRoles::contains));
+        }
+
+        public boolean batched() {
+            return batchWindowMs > 0;
+        }
+
+        @Override
+        public String toString() {
+            // Keeps the secret out of logs
+            return "Route[webhookConfigId=" + webhookConfigId + ", webhookUrl=" + webhookUrl + "]";
+        }
+    }
+
+    private record Index(Map<Long, Map<String, List<Route>>> byOrganization, Map<Long, Route> byId,
+                         OffsetDateTime loadedAt) {
+    }
+
+    private final WebhookConfigRepository webhookConfigRepository;
+    private volatile Index index;
+    private volatile long refreshedAt;
+
+    @Autowired
+    public WebhookRouter(WebhookConfigRepository webhookConfigRepository) {
+        this.webhookConfigRepository = webhookConfigRepository;
+    }
+
+    /**
+     * Webhooks of the organization subscribed to the event type and targeting one of the roles.
+     */
+    public List<Route> routes(Long organizationId, String eventType, Collection<String> roles) {
+        Map<String, List<Route>> byEventType = index().byOrganization().get(organizationId);
+        if (byEventType == null) {
+            return List.of();
+        }
+        List<Route> routes = new ArrayList<>();
+        for (String key : new String[] {eventType, ALL_EVENTS}) {
+            for (Route route : byEventType.getOrDefault(key, List.of())) {
+                if (route.targets(roles)) {
+                    routes.add(route);
+                }
+            }
+        }
+        return routes;
+    }
+
+    /**
+     * Route of an active webhook; null once it has been deactivated or removed.
+     */
+    public Route route(Long webhookConfigId) {
+        return index().byId().get(webhookConfigId);
+    }
+
+    /**
+     * Whether the index was loaded late enough to hold every webhook active at the given time, so a
+     * webhook missing from it has been deactivated or removed rather than saved since.
+     */
+    public boolean isLoadedAfter(OffsetDateTime time) {
+        return time == null || index().loadedAt().isAfter(time.plus(CLOCK_SKEW));
+    }
+
+    /**
+     * Rebuilds the index unless it was loaded within maxAge. For a webhook this instance does not
+     * know yet, e.g. one saved on another instance since the last refresh.
+     */
+    public void refreshIfOlderThan(Duration maxAge) {
+        if (System.nanoTime() - refreshedAt > maxAge.toNanos()) {
+            refresh();
+        }
+    }
+
+    /**
+     * Rebuilds the index once the current transaction has committed the saved config.
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.webhooks.routes-refresh-ms:60000}", initialDelayString = "${app.webhooks.routes-refresh-ms:60000}")
+    public void refresh() {
+        try {
+            index = load();
+            refreshedAt = System.nanoTime();
+        } catch (Exception e) {
+            System.err.println("Webhook routes refresh failed: " + e.getMessage());
+        }
+    }
+
+    private Index index() {
+        Index current = index;
+        if (current == null) {
+            // First event before startup finished loading
+            current = load();
+            index = current;
+        }
+        return current;
+    }
+
+    private Index load() {
+        // Taken before the query, so nothing committed after it can be missing from the index unnoticed
+        OffsetDateTime loadedAt = OffsetDateTime.now();
+        return build(webhookConfigRepository.findByIsActiveTrue(), loadedAt);
+    }
+
+    private static Index build(List<WebhookConfig> configs, OffsetDateTime loadedAt) {
+        Map<Long, Map<String, List<Route>>> byOrganization = new HashMap<>();
+        Map<Long, Route> byId = new HashMap<>();
+        for (WebhookConfig config : configs) {
+            Long organizationId = config.getOrganization().getId();
+            Route route = toRoute(config, organizationId);
+            byId.put(route.webhookConfigId(), route);
+            // An empty event type list subscribes to nothing, as before
+            Collection<String> eventTypes = config.getEventTypes() != null ? Set.copyOf(config.getEventTypes()) : List.of(ALL_EVENTS);
+            Map<String, List<Route>> byEventType = byOrganization.computeIfAbsent(organizationId, id -> new HashMap<>());
+            for (String eventType : eventTypes) {
+                byEventType.computeIfAbsent(eventType, type -> new ArrayList<>()).add(route);
+            }
+        }
+        // Freeze the snapshot; readers share it without locking
+        Map<Long, Map<String, List<Route>>> frozen = new HashMap<>();
+        byOrganization.forEach((organizationId, byEventType) -> {
+            Map<String, List<Route>> routes = new HashMap<>();
+            byEventType.forEach((eventType, list) -> routes.put(eventType, List.copyOf(list)));
+            frozen.put(organizationId, Map.copyOf(routes));
+        });
+        return new Index(Map.copyOf(frozen), Map.copyOf(byId), loadedAt);
+    }
+
+    private static Route toRoute(WebhookConfig config, Long organizationId) {
+        long batchWindowMs = config.getBatchWindowMs() != null ? Math.max(0, config.getBatchWindowMs()) : 0;
+        int batchMaxSize = 1;
+        if (batchWindowMs > 0) {
+            Integer size = config.getBatchMaxSize();
+            batchMaxSize = size != null && size > 0 ? Math.min(size, MAX_BATCH_SIZE) : MAX_BATCH_SIZE;
+        }
+        int maxRequestsPerMinute = config.getMaxRequestsPerMinute() != null ? Math.max(0, config.getMaxRequestsPerMinute()) : 0;
+        return new Route(config.getId(), organizationId, config.getWebhookUrl(),
+                config.getTargetRoles() != null ? Set.copyOf(config.getTargetRoles()) : Set.of(),
+                batchWindowMs, batchMaxSize, maxRequestsPerMinute,
+                config.getSecretKey() != null && !config.getSecretKey().isBlank() ? config.getSecretKey() : null);
+    }
+}
@@ -0,0 +1,67 @@
+package org.flow.flowbackend.service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * HMAC-SHA256 signatures for webhook requests. The signed content is the timestamp, a dot and the
+ * request body, so a receiver holding the secret can check both the body and its age:
+ * X-Flow-Signature carries "sha256=" and the hex digest, X-Flow-Timestamp the epoch seconds.
+ *
+ * Mac instances are not thread-safe and costly to set up, so each worker thread keeps one per
+ * secret, for the few most recently used secrets.
+ */
+final class WebhookSignatures {
+
+    static final String SIGNATURE_HEADER = "X-Flow-Signature";
+    static final String TIMESTAMP_HEADER = "X-Flow-Timestamp";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAX_CACHED_SECRETS = 32;
+    private static final byte[] SEPARATOR = {'.'};
+    private static final int SECRET_BYTES = 32;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final ThreadLocal<Map<String, Mac>> MACS = ThreadLocal.withInitial(() ->
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Mac> eldest) {
+                    return size() > MAX_CACHED_SECRETS;
+                }
+            });
+
+    private WebhookSignatures() {
+    }
+
+    static String sign(String secret, long timestamp, byte[] body) {
+        Mac mac = MACS.get().computeIfAbsent(secret, WebhookSignatures::newMac);
+        mac.update(Long.toString(timestamp).getBytes(StandardCharsets.US_ASCII));
+        mac.update(SEPARATOR);
+        // doFinal also resets the Mac for the next request
+        return "sha256=" + HexFormat.of().formatHex(mac.doFinal(body));
+    }
+
+    /**
+     * A random secret for a webhook saved without one, as hex.
+     */
+    static String newSecret() {
+        byte[] secret = new byte[SECRET_BYTES];
+        RANDOM.nextBytes(secret);
+        return HexFormat.of().formatHex(secret);
+    }
+
+    private static Mac newMac(String secret) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
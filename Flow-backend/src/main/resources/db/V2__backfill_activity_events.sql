@@ -0,0 +1,16 @@
+-- Seeds the activity_events feed from existing rows so dashboards keep their history after upgrading.
+-- Run once against the projectflow database after the application has created the activity_events table.
+
+INSERT INTO activity_events (organization_id, project_id, project_name, type, action, entity_id, title, actor_id, created_at)
+SELECT o.id, NULL, NULL, 'organization', 'created', o.id, CONCAT('Organization ''', o.name, ''' created'), o.created_by, o.created_at
+FROM organizations o;
+
+INSERT INTO activity_events (organization_id, project_id, project_name, type, action, entity_id, title, actor_id, created_at)
+SELECT p.organization_id, p.id, o.name, 'project', 'created', p.id, CONCAT('Project ''', p.name, ''' added'), p.created_by, p.created_at
+FROM projects p
+JOIN organizations o ON o.id = p.organization_id;
+
+INSERT INTO activity_events (organization_id, project_id, project_name, type, action, entity_id, title, actor_id, created_at)
+SELECT p.organization_id, p.id, p.name, 'task', 'updated', t.id, CONCAT('Task ''', t.title, ''' updated'), NULL, COALESCE(t.updated_at, t.created_at)
+FROM tasks t
+JOIN projects p ON p.id = t.project_id;
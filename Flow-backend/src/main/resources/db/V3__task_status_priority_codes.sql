@@ -0,0 +1,99 @@
+-- Stores tasks.status and tasks.priority as small integer codes (TaskStatus / TaskPriority).
+-- Legacy spellings are folded into one canonical value: 'completed'/'Done' -> done (4), 'in-progress' -> in_progress (1).
+-- Run against the projectflow database BEFORE starting the upgraded application.
+--
+-- status:   0 todo, 1 in_progress, 2 review, 3 blocked, 4 done
+-- priority: 0 low, 1 medium, 2 high, 3 urgent
+--
+-- Every step checks information_schema first, so the script runs on a baseline database, on one the
+-- upgraded application has already started against, and again after it stopped halfway or completed.
+-- The string columns are ENUMs on a database created from the original schema.sql and VARCHARs on one
+-- created by ddl-auto; the string functions in step 2 read an ENUM value as its label, so both fold alike.
+
+SET @status_is_text := (SELECT COUNT(*) FROM information_schema.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'tasks' AND COLUMN_NAME = 'status'
+      AND DATA_TYPE IN ('enum', 'varchar', 'char', 'text'));
+SET @has_codes := (SELECT COUNT(*) FROM information_schema.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'tasks' AND COLUMN_NAME = 'status_code');
+
+-- 1. Code columns next to the string ones
+SET @sql := IF(@status_is_text > 0 AND @has_codes = 0,
+    'ALTER TABLE tasks ADD COLUMN status_code SMALLINT NOT NULL DEFAULT 0, ADD COLUMN priority_code SMALLINT NOT NULL DEFAULT 1',
+    'DO 0');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 2. Codes from the strings, for as long as the strings are there
+SET @sql := IF(@status_is_text > 0,
+    'UPDATE tasks SET
+        status_code = CASE LOWER(REPLACE(TRIM(status), ''-'', ''_''))
+            WHEN ''in_progress'' THEN 1
+            WHEN ''inprogress'' THEN 1
+            WHEN ''review'' THEN 2
+            WHEN ''blocked'' THEN 3
+            WHEN ''done'' THEN 4
+            WHEN ''completed'' THEN 4
+            ELSE 0
+        END,
+        priority_code = CASE LOWER(TRIM(priority))
+            WHEN ''low'' THEN 0
+            WHEN ''high'' THEN 2
+            WHEN ''urgent'' THEN 3
+            ELSE 1
+        END',
+    'DO 0');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 3. Indexes covering the old string columns, when the application already created them; recreated in step 6
+SET @sql := IF(@status_is_text > 0 AND EXISTS (SELECT 1 FROM information_schema.STATISTICS
+        WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'tasks' AND INDEX_NAME = 'idx_tasks_project_status_due'),
+    'ALTER TABLE tasks DROP INDEX idx_tasks_project_status_due',
+    'DO 0');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @sql := IF(@status_is_text > 0 AND EXISTS (SELECT 1 FROM information_schema.STATISTICS
+        WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'tasks' AND INDEX_NAME = 'idx_tasks_due_date'),
+    'ALTER TABLE tasks DROP INDEX idx_tasks_due_date',
+    'DO 0');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 4. The string columns
+SET @sql := IF(@status_is_text > 0,
+    'ALTER TABLE tasks DROP COLUMN status, DROP COLUMN priority',
+    'DO 0');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 5. The code columns take over the names
+SET @sql := IF(EXISTS (SELECT 1 FROM information_schema.COLUMNS
+        WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'tasks' AND COLUMN_NAME = 'status_code'),
+    'ALTER TABLE tasks RENAME COLUMN status_code TO status, RENAME COLUMN priority_code TO priority',
+    'DO 0');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 6. Indexes on the new columns
+SET @sql := IF(NOT EXISTS (SELECT 1 FROM information_schema.STATISTICS
+        WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'tasks' AND INDEX_NAME = 'idx_tasks_project_status_due'),
+    'CREATE INDEX idx_tasks_project_status_due ON tasks(project_id, status, due_date, priority)',
+    'DO 0');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @sql := IF(NOT EXISTS (SELECT 1 FROM information_schema.STATISTICS
+        WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'tasks' AND INDEX_NAME = 'idx_tasks_due_date'),
+    'CREATE INDEX idx_tasks_due_date ON tasks(due_date, project_id, status)',
+    'DO 0');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
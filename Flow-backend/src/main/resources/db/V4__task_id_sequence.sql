@@ -0,0 +1,14 @@
+-- Moves tasks.id generation from AUTO_INCREMENT to the pooled "tasks_seq" generator (allocation size 50),
+-- which lets Hibernate batch task inserts. MySQL has no sequences, so Hibernate keeps the next value in a
+-- one-row table.
+-- Run once against the projectflow database BEFORE starting the upgraded application: otherwise ddl-auto
+-- creates the table starting at 1 and new task ids collide with existing ones.
+
+CREATE TABLE IF NOT EXISTS tasks_seq (
+    next_val BIGINT
+);
+
+DELETE FROM tasks_seq;
+
+-- The pooled optimizer hands out (next_val - 49 .. next_val) first, so start one allocation past the current maximum
+INSERT INTO tasks_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM tasks;
@@ -0,0 +1,27 @@
+-- Delta sync: tasks carry the change sequence of their last write, deletes leave tombstones, and a
+-- one-row counter hands out the sequence. ddl-auto creates the same column and tables on startup,
+-- and the application backfills existing tasks to sequence 0; this script does both up front and
+-- adds the indexes on an existing database.
+
+ALTER TABLE tasks ADD COLUMN change_seq BIGINT;
+UPDATE tasks SET change_seq = 0 WHERE change_seq IS NULL;
+CREATE INDEX idx_tasks_change_seq ON tasks (change_seq, id);
+CREATE INDEX idx_tasks_project_change_seq ON tasks (project_id, change_seq, id);
+
+CREATE TABLE IF NOT EXISTS task_change_counter (
+    id BIGINT PRIMARY KEY,
+    last_seq BIGINT NOT NULL,
+    purged_through BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO task_change_counter (id, last_seq, purged_through)
+SELECT 1, 0, 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM task_change_counter WHERE id = 1);
+
+CREATE TABLE IF NOT EXISTS task_tombstones (
+    task_id BIGINT PRIMARY KEY,
+    project_id BIGINT NOT NULL,
+    change_seq BIGINT NOT NULL,
+    deleted_at DATETIME(6) NOT NULL,
+    INDEX idx_task_tombstones_seq (change_seq, task_id),
+    INDEX idx_task_tombstones_project_seq (project_id, change_seq, task_id)
+);
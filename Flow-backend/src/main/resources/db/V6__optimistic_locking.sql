@@ -0,0 +1,5 @@
+-- Optimistic locking: tasks and projects carry a version that every write increments and that is
+-- served as the ETag. ddl-auto adds the same columns on startup; existing rows start at version 0.
+
+ALTER TABLE tasks ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE projects ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
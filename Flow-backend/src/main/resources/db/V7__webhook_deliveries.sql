@@ -0,0 +1,21 @@
+-- Webhook outbox: notifications queue one delivery row per subscribed endpoint in their own
+-- transaction, and the webhook dispatcher sends, retries and dead-letters them. ddl-auto creates
+-- the same table on startup; this script creates it with its indexes on an existing database.
+
+CREATE TABLE IF NOT EXISTS webhook_deliveries (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    webhook_config_id BIGINT NOT NULL,
+    organization_id BIGINT NOT NULL,
+    webhook_url VARCHAR(255) NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(6) NOT NULL,
+    last_status_code INT,
+    last_error VARCHAR(500),
+    created_at DATETIME(6) NOT NULL,
+    completed_at DATETIME(6),
+    INDEX idx_webhook_deliveries_due (status, next_attempt_at),
+    INDEX idx_webhook_deliveries_org_status (organization_id, status, id)
+);
@@ -0,0 +1,9 @@
+-- Webhook batching and rate limits: a webhook can buffer events for batch_window_ms (sending early
+-- at batch_max_size) and send them as one JSON array, and cap its requests per minute. All three are
+-- optional and off when null. ddl-auto adds the same columns and index on startup.
+
+ALTER TABLE webhook_configs ADD COLUMN batch_window_ms INT;
+ALTER TABLE webhook_configs ADD COLUMN batch_max_size INT;
+ALTER TABLE webhook_configs ADD COLUMN max_requests_per_minute INT;
+
+CREATE INDEX idx_webhook_deliveries_config_status ON webhook_deliveries (webhook_config_id, status, next_attempt_at);
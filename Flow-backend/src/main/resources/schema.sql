@@ -63,6 +63,7 @@ CREATE TABLE IF NOT EXISTS projects (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP,
     settings JSON DEFAULT '{}',
+    version BIGINT NOT NULL DEFAULT 0,       -- optimistic lock, served as the ETag
     FOREIGN KEY (organization_id) REFERENCES organizations(id) ON DELETE CASCADE,
     FOREIGN KEY (project_manager_id) REFERENCES users(id),
     FOREIGN KEY (created_by) REFERENCES users(id)
@@ -80,14 +81,19 @@ CREATE TABLE IF NOT EXISTS project_members (
     UNIQUE KEY unique_project_member (project_id, user_id)
 );
 
+-- Task id generator (pooled, allocation size 50; Hibernate's table emulation of a sequence on MySQL)
+CREATE TABLE IF NOT EXISTS tasks_seq (
+    next_val BIGINT
+);
+
 -- Tasks Table
 CREATE TABLE IF NOT EXISTS tasks (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     project_id BIGINT NOT NULL,
     title VARCHAR(255) NOT NULL,
     description TEXT,
-    status ENUM('todo', 'in_progress', 'review', 'completed', 'blocked') DEFAULT 'todo',
-    priority ENUM('low', 'medium', 'high', 'urgent') DEFAULT 'medium',
+    status SMALLINT NOT NULL DEFAULT 0,      -- TaskStatus code: 0 todo, 1 in_progress, 2 review, 3 blocked, 4 done
+    priority SMALLINT NOT NULL DEFAULT 1,    -- TaskPriority code: 0 low, 1 medium, 2 high, 3 urgent
     due_date TIMESTAMP,
     estimated_hours DECIMAL(5,2),
     actual_hours DECIMAL(5,2),
@@ -97,12 +103,91 @@ CREATE TABLE IF NOT EXISTS tasks (
     updated_at TIMESTAMP,
     parent_task_id BIGINT,
     order_index INT DEFAULT 0,
+    board_rank VARCHAR(64),                  -- fractional base-36 board position, compared as a string
+    change_seq BIGINT,                       -- change sequence of the last write, for delta sync
+    version BIGINT NOT NULL DEFAULT 0,       -- optimistic lock, served as the ETag
     FOREIGN KEY (project_id) REFERENCES projects(id) ON DELETE CASCADE,
     FOREIGN KEY (created_by) REFERENCES users(id),
     FOREIGN KEY (assigned_to) REFERENCES users(id),
     FOREIGN KEY (parent_task_id) REFERENCES tasks(id) ON DELETE SET NULL
 );
 
+-- Task Change Counter Table (single row handing out the task change sequence)
+CREATE TABLE IF NOT EXISTS task_change_counter (
+    id BIGINT PRIMARY KEY,
+    last_seq BIGINT NOT NULL,
+    purged_through BIGINT NOT NULL DEFAULT 0
+);
+
+-- Task Tombstones Table (deleted tasks, reported by delta sync until purged)
+CREATE TABLE IF NOT EXISTS task_tombstones (
+    task_id BIGINT PRIMARY KEY,
+    project_id BIGINT NOT NULL,
+    change_seq BIGINT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL
+);
+
+-- Project Task Stats Table (per-project task counters maintained by TaskService)
+CREATE TABLE IF NOT EXISTS project_task_stats (
+    project_id BIGINT PRIMARY KEY,
+    organization_id BIGINT NOT NULL,
+    total BIGINT NOT NULL DEFAULT 0,
+    todo BIGINT NOT NULL DEFAULT 0,
+    in_progress BIGINT NOT NULL DEFAULT 0,
+    done BIGINT NOT NULL DEFAULT 0,
+    overdue BIGINT NOT NULL DEFAULT 0,
+    estimated_hours DOUBLE NOT NULL DEFAULT 0,
+    actual_hours DOUBLE NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP,
+    reconciled_at TIMESTAMP
+);
+
+-- Project Task Daily Table (per-project, per-day task history for burndown/velocity charts)
+CREATE TABLE IF NOT EXISTS project_task_daily (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    project_id BIGINT NOT NULL,
+    stat_date DATE NOT NULL,
+    created_tasks BIGINT NOT NULL DEFAULT 0,
+    completed_tasks BIGINT NOT NULL DEFAULT 0,
+    open_tasks BIGINT NOT NULL DEFAULT 0,
+    overdue_tasks BIGINT NOT NULL DEFAULT 0,
+    estimated_hours DOUBLE NOT NULL DEFAULT 0,
+    actual_hours DOUBLE NOT NULL DEFAULT 0,
+    snapshot_at TIMESTAMP,
+    CONSTRAINT uk_project_task_daily_project_day UNIQUE (project_id, stat_date)
+);
+
+-- Activity Events Table (append-only dashboard activity feed)
+CREATE TABLE IF NOT EXISTS activity_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    organization_id BIGINT NOT NULL,
+    project_id BIGINT,
+    project_name VARCHAR(255),
+    type VARCHAR(20) NOT NULL,
+    action VARCHAR(20) NOT NULL,
+    entity_id BIGINT,
+    title VARCHAR(500) NOT NULL,
+    actor_id BIGINT,
+    created_at TIMESTAMP(6) NOT NULL
+);
+
+-- Webhook Deliveries Table (outbox: one row per event and endpoint, drained by the webhook dispatcher)
+CREATE TABLE IF NOT EXISTS webhook_deliveries (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    webhook_config_id BIGINT NOT NULL,
+    organization_id BIGINT NOT NULL,
+    webhook_url VARCHAR(255) NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,             -- pending, sending, delivered, dead
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(6) NOT NULL,   -- due time, or lease end while sending
+    last_status_code INT,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP(6) NOT NULL,
+    completed_at TIMESTAMP(6)
+);
+
 -- Create indexes for performance
 CREATE INDEX IF NOT EXISTS idx_users_email ON users(email);
 CREATE INDEX IF NOT EXISTS idx_users_username ON users(username);
@@ -114,4 +199,22 @@ CREATE INDEX IF NOT EXISTS idx_project_members_project ON project_members(projec
 CREATE INDEX IF NOT EXISTS idx_project_members_user ON project_members(user_id);
 CREATE INDEX IF NOT EXISTS idx_tasks_project ON tasks(project_id);
 CREATE INDEX IF NOT EXISTS idx_tasks_status ON tasks(status);
-CREATE INDEX IF NOT EXISTS idx_tasks_assigned_to ON tasks(assigned_to);
\ No newline at end of file
+CREATE INDEX IF NOT EXISTS idx_tasks_assigned_to ON tasks(assigned_to);
+CREATE INDEX IF NOT EXISTS idx_tasks_project_status_due ON tasks(project_id, status, due_date, priority);
+CREATE INDEX IF NOT EXISTS idx_tasks_due_date ON tasks(due_date, project_id, status);
+CREATE INDEX IF NOT EXISTS idx_tasks_assignee_due ON tasks(assigned_to, due_date);
+CREATE INDEX IF NOT EXISTS idx_tasks_project_rank ON tasks(project_id, board_rank, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_project_status_rank ON tasks(project_id, status, board_rank, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_parent ON tasks(parent_task_id, board_rank);
+CREATE INDEX IF NOT EXISTS idx_tasks_change_seq ON tasks(change_seq, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_project_change_seq ON tasks(project_id, change_seq, id);
+CREATE INDEX IF NOT EXISTS idx_task_tombstones_seq ON task_tombstones(change_seq, task_id);
+CREATE INDEX IF NOT EXISTS idx_task_tombstones_project_seq ON task_tombstones(project_id, change_seq, task_id);
+CREATE INDEX IF NOT EXISTS idx_organizations_name ON organizations(name);
+CREATE INDEX IF NOT EXISTS idx_project_task_stats_org ON project_task_stats(organization_id);
+CREATE INDEX IF NOT EXISTS idx_project_task_daily_date ON project_task_daily(stat_date);
+CREATE INDEX IF NOT EXISTS idx_activity_events_org_created ON activity_events(organization_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_activity_events_type_created ON activity_events(type, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_webhook_deliveries_due ON webhook_deliveries(status, next_attempt_at);
+CREATE INDEX IF NOT EXISTS idx_webhook_deliveries_org_status ON webhook_deliveries(organization_id, status, id);
+CREATE INDEX IF NOT EXISTS idx_webhook_deliveries_config_status ON webhook_deliveries(webhook_config_id, status, next_attempt_at);
@@ -0,0 +1,121 @@
+package org.flow.flowbackend.service;
+
+import org.flow.flowbackend.model.User;
+import org.flow.flowbackend.repository.OrganizationMemberRepository;
+import org.flow.flowbackend.repository.OrganizationRepository;
+import org.flow.flowbackend.repository.ProjectMemberRepository;
+import org.flow.flowbackend.repository.ProjectRepository;
+import org.flow.flowbackend.repository.ProjectTaskStatsRepository;
+import org.flow.flowbackend.repository.TaskRepository;
+import org.flow.flowbackend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Single-flight dashboard computations: while one request computes a section, identical requests
+ * wait for and share its result instead of querying again.
+ */
+class DashboardServiceTest {
+
+    private static final int FOLLOWERS = 8;
+
+    private final OrganizationRepository organizationRepository = mock(OrganizationRepository.class);
+    private final OrganizationMemberRepository organizationMemberRepository = mock(OrganizationMemberRepository.class);
+    private final ProjectTaskStatsRepository projectTaskStatsRepository = mock(ProjectTaskStatsRepository.class);
+    private final CountDownLatch leaderComputing = new CountDownLatch(1);
+    private final CountDownLatch releaseLeader = new CountDownLatch(1);
+
+    private DashboardService dashboardService;
+    private User orgAdmin;
+
+    @BeforeEach
+    void setUp() {
+        dashboardService = new DashboardService(organizationRepository,
+                mock(UserRepository.class),
+                mock(ProjectRepository.class),
+                mock(TaskRepository.class),
+                organizationMemberRepository,
+                mock(ProjectMemberRepository.class),
+                projectTaskStatsRepository,
+                mock(ActivityService.class),
+                mock(PlatformTransactionManager.class));
+
+        orgAdmin = new User();
+        orgAdmin.setId(7L);
+        orgAdmin.setRoles(List.of("ORG_ADMIN"));
+        when(organizationRepository.findIdsByOrgAdmin(any())).thenReturn(List.of(1L));
+
+        ProjectTaskStatsRepository.TaskTotals totals = mock(ProjectTaskStatsRepository.TaskTotals.class);
+        when(totals.getTotal()).thenReturn(12L);
+        when(totals.getDone()).thenReturn(5L);
+        // The first request to get here holds the computation open until the test releases it
+        when(projectTaskStatsRepository.sumByOrganizationIds(anyCollection())).thenAnswer(invocation -> {
+            leaderComputing.countDown();
+            assertTrue(releaseLeader.await(10, TimeUnit.SECONDS));
+            return totals;
+        });
+    }
+
+    @Test
+    void identicalRequestsJoinTheComputationInFlight() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(FOLLOWERS + 1);
+        try {
+            Future<Map<String, Object>> leader = executor.submit(() -> dashboardService.getDashboardStats(orgAdmin));
+            assertTrue(leaderComputing.await(10, TimeUnit.SECONDS));
+
+            List<Future<Map<String, Object>>> followers = new ArrayList<>();
+            for (int i = 0; i < FOLLOWERS; i++) {
+                followers.add(executor.submit(() -> dashboardService.getDashboardStats(orgAdmin)));
+            }
+            // Every follower has found the leader's computation before it is allowed to finish
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (dashboardService.getCoalescedRequestCount() < FOLLOWERS && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(FOLLOWERS, dashboardService.getCoalescedRequestCount());
+            releaseLeader.countDown();
+
+            Map<String, Object> stats = leader.get(10, TimeUnit.SECONDS);
+            assertEquals(12L, stats.get("totalTasks"));
+            for (Future<Map<String, Object>> follower : followers) {
+                assertSame(stats, follower.get(10, TimeUnit.SECONDS));
+            }
+            verify(projectTaskStatsRepository, times(1)).sumByOrganizationIds(anyCollection());
+        } finally {
+            releaseLeader.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void laterRequestComputesAgain() {
+        releaseLeader.countDown();
+
+        Map<String, Object> first = dashboardService.getDashboardStats(orgAdmin);
+        Map<String, Object> second = dashboardService.getDashboardStats(orgAdmin);
+
+        assertEquals(first, second);
+        assertEquals(0, dashboardService.getCoalescedRequestCount());
+        verify(projectTaskStatsRepository, times(2)).sumByOrganizationIds(anyCollection());
+    }
+}
@@ -0,0 +1,205 @@
+package org.flow.flowbackend.service;
+
+import org.flow.flowbackend.model.Organization;
+import org.flow.flowbackend.model.Project;
+import org.flow.flowbackend.model.Task;
+import org.flow.flowbackend.model.TaskComment;
+import org.flow.flowbackend.model.User;
+import org.flow.flowbackend.payload.response.TaskDTO;
+import org.flow.flowbackend.repository.OrganizationRepository;
+import org.flow.flowbackend.repository.ProjectRepository;
+import org.flow.flowbackend.repository.TaskCommentRepository;
+import org.flow.flowbackend.repository.TaskRepository;
+import org.flow.flowbackend.repository.UserRepository;
+import org.flow.flowbackend.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.StringReader;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SQL statements issued by task list, bulk and import operations, counted on an in-memory H2
+ * database in MySQL mode. The count of an operation must not grow with the number of tasks it
+ * covers.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statement-counts;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=org.flow.flowbackend.support.SqlStatementCounter"
+})
+class TaskStatementCountTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskImportService taskImportService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskCommentRepository taskCommentRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User manager;
+    private User member;
+
+    @BeforeEach
+    void setUp() {
+        manager = userRepository.findByEmail("project_manager@flow.local").orElseThrow();
+        member = userRepository.findByEmail("team_member@flow.local").orElseThrow();
+    }
+
+    @Test
+    void projectListRunsTheSameStatementsForAnyNumberOfTasks() {
+        Project small = projectWithTasks(10);
+        Project large = projectWithTasks(60);
+
+        SqlStatementCounter.reset();
+        List<TaskDTO> smallList = taskService.getTasksByProject(small.getId());
+        long smallStatements = SqlStatementCounter.count();
+
+        SqlStatementCounter.reset();
+        List<TaskDTO> largeList = taskService.getTasksByProject(large.getId());
+        long largeStatements = SqlStatementCounter.count();
+
+        System.out.println("Project task list: " + smallStatements + " statements for 10 tasks, "
+                + largeStatements + " for 60");
+        assertEquals(10, smallList.size());
+        assertEquals(60, largeList.size());
+        assertEquals(smallStatements, largeStatements);
+    }
+
+    @Test
+    void bulkStatusChangeRunsTheSameStatementsForAnyNumberOfTasks() {
+        List<Long> fewer = taskIdsOf(projectWithTasks(60));
+        List<Long> more = taskIdsOf(projectWithTasks(120));
+
+        SqlStatementCounter.reset();
+        assertEquals(60, taskService.bulkUpdateStatus(fewer, "done", manager));
+        long fewerStatements = SqlStatementCounter.count();
+
+        SqlStatementCounter.reset();
+        assertEquals(120, taskService.bulkUpdateStatus(more, "done", manager));
+        long moreStatements = SqlStatementCounter.count();
+
+        System.out.println("Bulk status change: " + fewerStatements + " statements for 60 tasks, "
+                + moreStatements + " for 120");
+        assertEquals(fewerStatements, moreStatements);
+    }
+
+    @Test
+    void bulkDeleteRunsTheSameStatementsForAnyNumberOfTasks() {
+        List<Long> fewer = taskIdsOf(projectWithTasks(10));
+        List<Long> more = taskIdsOf(projectWithTasks(100));
+
+        SqlStatementCounter.reset();
+        assertEquals(10, taskService.bulkDelete(fewer, manager));
+        long fewerStatements = SqlStatementCounter.count();
+
+        SqlStatementCounter.reset();
+        assertEquals(100, taskService.bulkDelete(more, manager));
+        long moreStatements = SqlStatementCounter.count();
+
+        System.out.println("Bulk delete: " + fewerStatements + " statements for 10 tasks, "
+                + moreStatements + " for 100");
+        assertEquals(fewerStatements, moreStatements);
+    }
+
+    @Test
+    void importRunsTheSameStatementsForEveryChunk() throws Exception {
+        long oneChunk = importStatements(500);
+        long twoChunks = importStatements(1000);
+        long threeChunks = importStatements(1500);
+
+        System.out.println("Task import: " + oneChunk + " statements for 500 rows, " + twoChunks + " for 1000, "
+                + threeChunks + " for 1500");
+        // Rows are inserted in chunks of 500, each in its own transaction, so every full chunk costs
+        // the same, give or take one call to the id sequence: it hands out blocks of 50 ids, which
+        // need not line up with the chunks
+        assertTrue(Math.abs((threeChunks - twoChunks) - (twoChunks - oneChunk)) <= 1);
+    }
+
+    private long importStatements(int rowCount) throws Exception {
+        Project project = projectWithTasks(0);
+        StringBuilder csv = new StringBuilder("title,status,priority,assigneeEmail\n");
+        for (int i = 0; i < rowCount; i++) {
+            csv.append("Imported ").append(i).append(i % 3 == 0 ? ",done" : ",todo").append(",high,")
+                    .append(i % 2 == 0 ? member.getEmail() : manager.getEmail()).append('\n');
+        }
+
+        SqlStatementCounter.reset();
+        Map<String, Object> summary = taskImportService.importTasks(project.getId(), TaskImportService.FORMAT_CSV,
+                new StringReader(csv.toString()), manager, event -> { });
+        long statements = SqlStatementCounter.count();
+        assertEquals(rowCount, ((Number) summary.get("imported")).intValue());
+        return statements;
+    }
+
+    // ===================== Fixtures =====================
+
+    private List<Long> taskIdsOf(Project project) {
+        return taskRepository.findIdsByProjectId(project.getId());
+    }
+
+    // Tasks assigned in turn to the member and the manager, every other one with a comment
+    private Project projectWithTasks(int taskCount) {
+        Organization organization = organizationRepository.findByName("Flow").orElseThrow();
+        Project project = new Project();
+        project.setName("Statements " + System.nanoTime());
+        project.setOrganization(organization);
+        project.setCreatedBy(manager);
+        project.setProjectManager(manager);
+        project = projectRepository.save(project);
+
+        List<Task> tasks = new ArrayList<>();
+        String rank = null;
+        for (int i = 0; i < taskCount; i++) {
+            rank = TaskRankService.after(rank);
+            Task task = new Task();
+            task.setProject(project);
+            task.setTitle("Task " + i);
+            task.setCreatedBy(manager);
+            task.setAssignedTo(i % 2 == 0 ? member : manager);
+            task.setRank(rank);
+            task.setChangeSeq(0L);
+            tasks.add(task);
+        }
+        tasks = taskRepository.saveAll(tasks);
+
+        List<TaskComment> comments = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i += 2) {
+            TaskComment comment = new TaskComment();
+            comment.setTask(tasks.get(i));
+            comment.setUser(member);
+            comment.setContent("Comment " + i);
+            comment.setCreatedAt(OffsetDateTime.now());
+            comments.add(comment);
+        }
+        taskCommentRepository.saveAll(comments);
+        return project;
+    }
+}
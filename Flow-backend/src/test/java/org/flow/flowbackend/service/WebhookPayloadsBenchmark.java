@@ -0,0 +1,93 @@
+package org.flow.flowbackend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Webhook payload encoding: {@link WebhookPayloads#event} against the String.format and escapeJson
+ * code it replaced, kept here as it was. Not part of the test run; start it with main from the IDE,
+ * or after mvn test-compile with org.openjdk.jmh.Main on the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebhookPayloadsBenchmark {
+
+    // plain: nothing to escape; escaped: quotes, backslashes and line breaks in the text fields
+    @Param({"plain", "escaped"})
+    public String text;
+
+    private String title;
+    private String message;
+    private OffsetDateTime timestamp;
+
+    @Setup
+    public void setUp() {
+        if ("escaped".equals(text)) {
+            title = "Task \"Release 2.4\" assigned";
+            message = "Check C:\\builds\\release before the deploy.\nSteps:\r\n\t1. tag\n\t2. \"ship\"";
+        } else {
+            title = "Task Release 2.4 assigned";
+            message = "You have been assigned to the task Release 2.4 in project Flow Platform.";
+        }
+        timestamp = OffsetDateTime.now();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String streaming() {
+        return WebhookPayloads.event("TASK_ASSIGNED", title, message, "member@flow.local", "TASK", 4242L, timestamp);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String stringFormat() {
+        return buildPayload("TASK_ASSIGNED", title, message, "member@flow.local", "TASK", 4242L, timestamp);
+    }
+
+    // The encoder WebhookDeliveryService used before WebhookPayloads
+    private static String buildPayload(String eventType, String title, String message, String userEmail,
+                                       String relatedEntityType, Long relatedEntityId, OffsetDateTime timestamp) {
+        return String.format(
+            "{\"eventType\":\"%s\",\"title\":\"%s\",\"message\":\"%s\",\"userEmail\":\"%s\",\"relatedEntityType\":\"%s\",\"relatedEntityId\":%d,\"timestamp\":\"%s\"}",
+            eventType, escapeJson(title), escapeJson(message), userEmail,
+            relatedEntityType != null ? relatedEntityType : "null",
+            relatedEntityId != null ? relatedEntityId : 0,
+            timestamp.toString()
+        );
+    }
+
+    private static String escapeJson(String text) {
+        if (text == null) return "";
+        return text.replace("\\", "\\\\")
+                   .replace("\"", "\\\"")
+                   .replace("\n", "\\n")
+                   .replace("\r", "\\r")
+                   .replace("\t", "\\t");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WebhookPayloadsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -24,7 +24,7 @@ interface Task {
   };
   dueDate: string;
   comments: number;
-  status: "todo" | "in-progress" | "review" | "done";
+  status: "todo" | "in_progress" | "review" | "done";
 }
 
 interface TaskDetailDialogProps {
@@ -57,6 +57,11 @@ async function request(path: string, options: RequestInit = {}) {
   return body;
 }
 
+// If-Match header for a write that should only apply to the version the caller last read
+export function ifMatch(version?: number): Record<string, string> {
+  return version !== undefined ? { 'If-Match': `"${version}"` } : {};
+}
+
 export const api = {
   get: (path: string) => request(path, { method: 'GET' }),
   post: (path: string, body?: any) => request(path, { method: 'POST', body: body ? JSON.stringify(body) : undefined }),
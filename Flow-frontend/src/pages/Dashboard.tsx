@@ -38,14 +38,10 @@ const Dashboard = () => {
   const loadDashboardData = async () => {
     try {
       setLoading(true);
-      const [statsData, activitiesData, deadlinesData] = await Promise.all([
-        dashboardService.getStats(),
-        dashboardService.getRecentActivities(),
-        dashboardService.getUpcomingDeadlines(),
-      ]);
-      setStats(statsData);
-      setActivities(activitiesData);
-      setDeadlines(deadlinesData);
+      const summary = await dashboardService.getSummary();
+      setStats(summary.stats);
+      setActivities(summary.activities);
+      setDeadlines(summary.deadlines);
     } catch (error) {
       console.error("Failed to load dashboard data:", error);
     } finally {
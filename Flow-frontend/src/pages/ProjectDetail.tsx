@@ -209,7 +209,7 @@ const ProjectDetail = () => {
                 estimatedHours: selectedTask.estimatedHours,
                 assignedToId: selectedTask.assignedToId,
                 status: selectedTask.status
-            });
+            }, selectedTask.version);
 
             toast({ title: "Success", description: "Task updated successfully" });
             setIsEditTaskOpen(false);
@@ -320,7 +320,7 @@ const ProjectDetail = () => {
         { id: "todo", title: "To Do" },
         { id: "in_progress", title: "In Progress" },
         { id: "review", title: "Review" },
-        { id: "completed", title: "Done" }
+        { id: "done", title: "Done" }
     ];
 
     const filteredTasks = tasks.filter(task =>
@@ -719,7 +719,7 @@ const ProjectDetail = () => {
                                             <SelectItem value="todo">To Do</SelectItem>
                                             <SelectItem value="in_progress">In Progress</SelectItem>
                                             <SelectItem value="review">Review</SelectItem>
-                                            <SelectItem value="completed">Done</SelectItem>
+                                            <SelectItem value="done">Done</SelectItem>
                                         </SelectContent>
                                     </Select>
                                 </div>
@@ -44,7 +44,7 @@ const SystemSettings = () => {
     maxUsersPerOrganization: 50,
     maxMembersPerProject: 20,
     maxProjectsPerOrganization: 10,
-    maxTasksPerProject: 500,
+    maxTasksPerProject: 5000,
   });
   const [loadingLimits, setLoadingLimits] = useState(false);
   const [savingLimits, setSavingLimits] = useState(false);
@@ -197,7 +197,7 @@ const Tasks = () => {
     { title: "To Do", id: "todo" },
     { title: "In Progress", id: "in_progress" },
     { title: "Review", id: "review" },
-    { title: "Done", id: "completed" },
+    { title: "Done", id: "done" },
   ];
 
   if (loading) {
@@ -403,7 +403,7 @@ const Tasks = () => {
                       <SelectItem value="todo">To Do</SelectItem>
                       <SelectItem value="in_progress">In Progress</SelectItem>
                       <SelectItem value="review">Review</SelectItem>
-                      <SelectItem value="completed">Done</SelectItem>
+                      <SelectItem value="done">Done</SelectItem>
                     </SelectContent>
                   </Select>
                   <Button variant="ghost" size="sm" asChild className="ml-auto">
@@ -29,6 +29,7 @@ export interface DashboardStats {
 }
 
 export interface DashboardActivity {
+    id?: number;
     type: string;
     title: string;
     time: string;
@@ -42,7 +43,17 @@ export interface DashboardDeadline {
     taskId: number;
 }
 
+export interface DashboardSummary {
+    stats: DashboardStats;
+    activities: DashboardActivity[];
+    deadlines: DashboardDeadline[];
+}
+
 export const dashboardService = {
+    async getSummary(): Promise<DashboardSummary> {
+        return await api.get('/api/dashboard/summary');
+    },
+
     async getStats(): Promise<DashboardStats> {
         return await api.get('/api/dashboard/stats');
     },
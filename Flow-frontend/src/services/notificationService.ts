@@ -19,6 +19,40 @@ export interface WebhookConfig {
     isActive: boolean;
     eventTypes: string[];
     targetRoles: string[];
+    batchWindowMs?: number;
+    batchMaxSize?: number;
+    maxRequestsPerMinute?: number;
+}
+
+export interface WebhookDelivery {
+    id: number;
+    webhookConfigId: number;
+    organizationId: number;
+    webhookUrl: string;
+    eventType: string;
+    payload: string;
+    status: "pending" | "sending" | "delivered" | "dead";
+    attempts: number;
+    nextAttemptAt: string;
+    lastStatusCode?: number;
+    lastError?: string;
+    createdAt: string;
+    completedAt?: string;
+}
+
+export interface WebhookEndpointStats {
+    url: string;
+    state: "CLOSED" | "OPEN" | "HALF_OPEN";
+    inFlight: number;
+    requests: number;
+    failures: number;
+    consecutiveFailures: number;
+    recentRequests: number;
+    recentErrorRate: number;
+    avgLatencyMs: number;
+    p50LatencyMs: number;
+    p95LatencyMs: number;
+    maxLatencyMs: number;
 }
 
 export const notificationService = {
@@ -54,6 +88,24 @@ export const notificationService = {
     async saveWebhookConfig(config: WebhookConfig): Promise<WebhookConfig> {
         return await api.post('/api/notifications/webhook-config', config);
     },
+
+    // Webhook Deliveries (status "dead" lists the dead-lettered ones)
+    async getWebhookDeliveries(organizationId: number, status?: WebhookDelivery["status"], limit?: number): Promise<WebhookDelivery[]> {
+        const params = new URLSearchParams();
+        if (status) params.set('status', status);
+        if (limit) params.set('limit', String(limit));
+        const query = params.toString();
+        return await api.get(`/api/notifications/webhook-deliveries/${organizationId}${query ? `?${query}` : ''}`);
+    },
+
+    async retryWebhookDelivery(id: number): Promise<WebhookDelivery> {
+        return await api.post(`/api/notifications/webhook-deliveries/${id}/retry`);
+    },
+
+    // Per-URL circuit breaker state, latency and error rate (super admin)
+    async getWebhookEndpointStats(): Promise<WebhookEndpointStats[]> {
+        return await api.get('/api/notifications/webhook-endpoints/stats');
+    },
 };
 
 // Event type constants (matching backend)
@@ -1,4 +1,4 @@
-import { api } from '@/lib/api';
+import { api, ifMatch } from '@/lib/api';
 import { User } from './userService';
 
 export interface Project {
@@ -16,6 +16,7 @@ export interface Project {
     createdAt: string;
     updatedAt?: string;
     projectManager?: User;
+    version: number;
 }
 
 export interface CreateProjectData {
@@ -68,12 +69,12 @@ export const projectService = {
         return await api.post(`/api/projects?organizationId=${organizationId}`, data);
     },
 
-    async updateProjectStatus(id: number, isActive: boolean): Promise<Project> {
-        return await api.patch(`/api/projects/${id}/status`, { isActive });
+    async updateProjectStatus(id: number, isActive: boolean, version?: number): Promise<Project> {
+        return await api.raw(`/api/projects/${id}/status`, { method: 'PATCH', body: JSON.stringify({ isActive }), headers: ifMatch(version) });
     },
 
-    async updateProject(id: number, data: UpdateProjectData): Promise<Project> {
-        return await api.put(`/api/projects/${id}`, data);
+    async updateProject(id: number, data: UpdateProjectData, version?: number): Promise<Project> {
+        return await api.raw(`/api/projects/${id}`, { method: 'PUT', body: JSON.stringify(data), headers: ifMatch(version) });
     },
 
     async deleteProject(id: number): Promise<void> {
@@ -1,4 +1,4 @@
-import { api } from "@/lib/api";
+import { api, ifMatch } from "@/lib/api";
 
 export interface TaskComment {
     id: number;
@@ -13,12 +13,15 @@ export interface Task {
     id: number;
     title: string;
     description: string;
-    status: "todo" | "in_progress" | "review" | "completed" | "blocked";
+    status: "todo" | "in_progress" | "review" | "done" | "blocked";
     priority: "low" | "medium" | "high" | "urgent";
     dueDate: string;
     estimatedHours?: number;
     actualHours?: number;
     orderIndex: number;
+    rank?: string;
+    version: number;
+    parentTaskId?: number;
 
     // Project info
     projectId: number;
@@ -48,6 +51,7 @@ export interface CreateTaskData {
     estimatedHours?: number;
     assignedToId?: number;
     projectId: number;
+    parentTaskId?: number;
 }
 
 export interface UpdateTaskData {
@@ -62,6 +66,78 @@ export interface UpdateTaskData {
     orderIndex?: number;
 }
 
+export interface TaskPageFilters {
+    status?: string;
+    priority?: string;
+    assigneeId?: number;
+    dueFrom?: string;
+    dueTo?: string;
+    cursor?: string;
+    limit?: number;
+}
+
+export interface TaskPage {
+    items: Task[];
+    nextCursor: string | null;
+}
+
+export interface TaskTreeNode {
+    id: number;
+    parentTaskId: number | null;
+    title: string;
+    status: Task["status"];
+    priority: Task["priority"];
+    assignedToId: number | null;
+    assignedToName: string | null;
+    estimatedHours: number | null;
+    actualHours: number | null;
+    rank: string | null;
+    depth: number;
+    // Rolled up over the node's own subtree
+    subtaskCount: number;
+    completedSubtasks: number;
+    totalEstimatedHours: number;
+    totalActualHours: number;
+    progress: number;
+    subtasks: TaskTreeNode[];
+}
+
+export interface TaskTree {
+    path: { id: number; title: string; status: Task["status"] }[];
+    tree: TaskTreeNode;
+}
+
+export interface TaskProgress {
+    taskId: number;
+    subtaskCount: number;
+    completedSubtasks: number;
+    subtreeDepth: number;
+    progress: number;
+    estimatedHours: number;
+    actualHours: number;
+}
+
+// Delta sync of one project: pass nextCursor back as since; deleted holds the ids of removed tasks
+export interface TaskChanges {
+    changes: Task[];
+    deleted: number[];
+    nextCursor: string | null;
+    hasMore: boolean;
+    // The cursor is too old to continue: drop local state and sync again without one
+    resync: boolean;
+}
+
+const toQuery = (filters: object = {}): string => {
+    const params = new URLSearchParams();
+    Object.entries(filters).forEach(([key, value]) => {
+        if (value !== undefined && value !== null && value !== '') {
+            params.append(key, String(value));
+        }
+    });
+    const query = params.toString();
+    return query ? `?${query}` : '';
+};
+
 export const taskService = {
     async getTasksByUser(): Promise<Task[]> {
         return await api.get('/api/tasks');
@@ -75,6 +151,18 @@ export const taskService = {
         return await api.get(`/api/tasks/status/${status}`);
     },
 
+    async getTaskPage(filters?: TaskPageFilters): Promise<TaskPage> {
+        return await api.get(`/api/tasks/page${toQuery(filters)}`);
+    },
+
+    async getProjectTaskPage(projectId: number, filters?: TaskPageFilters): Promise<TaskPage> {
+        return await api.get(`/api/tasks/project/${projectId}/page${toQuery(filters)}`);
+    },
+
+    async getTaskChanges(projectId: number, since?: string, limit?: number): Promise<TaskChanges> {
+        return await api.get(`/api/tasks/changes${toQuery({ since, projectId, limit })}`);
+    },
+
     async getTaskById(id: number): Promise<Task> {
         return await api.get(`/api/tasks/${id}`);
     },
@@ -83,20 +171,39 @@ export const taskService = {
         return await api.post('/api/tasks', data);
     },
 
-    async updateTask(id: number, data: UpdateTaskData): Promise<Task> {
-        return await api.put(`/api/tasks/${id}`, data);
+    // Pass the version the task was read at to fail with 412 instead of overwriting a newer edit
+    async updateTask(id: number, data: UpdateTaskData, version?: number): Promise<Task> {
+        return await api.raw(`/api/tasks/${id}`, { method: 'PUT', body: JSON.stringify(data), headers: ifMatch(version) });
+    },
+
+    async updateTaskStatus(id: number, status: string, version?: number): Promise<Task> {
+        return await api.raw(`/api/tasks/${id}/status`, { method: 'PATCH', body: JSON.stringify({ status }), headers: ifMatch(version) });
+    },
+
+    // Places the task between its new column neighbours (null at either end of the column)
+    async moveTask(id: number, previousTaskId: number | null, nextTaskId: number | null, status?: string, version?: number): Promise<Task> {
+        return await api.raw(`/api/tasks/${id}/move`, { method: 'PATCH', body: JSON.stringify({ previousTaskId, nextTaskId, status }), headers: ifMatch(version) });
+    },
+
+    // Subtask hierarchy
+    async getTaskTree(id: number): Promise<TaskTree> {
+        return await api.get(`/api/tasks/${id}/tree`);
+    },
+
+    async getTaskProgress(id: number): Promise<TaskProgress> {
+        return await api.get(`/api/tasks/${id}/progress`);
     },
 
-    async updateTaskStatus(id: number, status: string): Promise<Task> {
-        return await api.patch(`/api/tasks/${id}/status`, { status });
+    async setParentTask(id: number, parentTaskId: number | null, version?: number): Promise<Task> {
+        return await api.raw(`/api/tasks/${id}/parent`, { method: 'PATCH', body: JSON.stringify({ parentTaskId }), headers: ifMatch(version) });
     },
 
-    async assignTask(id: number, userId: number | null): Promise<Task> {
-        return await api.patch(`/api/tasks/${id}/assign`, { userId });
+    async assignTask(id: number, userId: number | null, version?: number): Promise<Task> {
+        return await api.raw(`/api/tasks/${id}/assign`, { method: 'PATCH', body: JSON.stringify({ userId }), headers: ifMatch(version) });
     },
 
-    async deleteTask(id: number): Promise<void> {
-        return await api.del(`/api/tasks/${id}`);
+    async deleteTask(id: number, version?: number): Promise<void> {
+        return await api.raw(`/api/tasks/${id}`, { method: 'DELETE', headers: ifMatch(version) });
     },
 
     // Comment methods